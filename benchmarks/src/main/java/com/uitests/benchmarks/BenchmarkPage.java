@@ -0,0 +1,40 @@
+package com.uitests.benchmarks;
+
+import com.uitests.pages.BasePage;
+import com.uitests.pages.PageSnapshot;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+
+/**
+ * Page object over the fixture home page that exposes the protected BasePage helpers to the benchmarks.
+ */
+public class BenchmarkPage extends BasePage {
+
+    @FindBy(id = "noop-button")
+    WebElement noopButton;
+
+    @FindBy(xpath = "//h2[contains(text(), 'Key Use Cases')]")
+    WebElement keyUseCasesHeader;
+
+    @FindBy(xpath = "//p[normalize-space()='Cost Savings']")
+    WebElement costSavingsSection;
+
+    @FindBy(xpath = "//span[normalize-space()='$2m']")
+    WebElement costSavingsValue;
+
+    void scrollToTop() {
+        js.executeScript("window.scrollTo(0, 0);");
+    }
+
+    void scrollAndClickNoop() {
+        scrollAndClick(noopButton, "No-op button");
+    }
+
+    void jsClickNoop() {
+        jsClick(noopButton);
+    }
+
+    PageSnapshot snapshotOfFields() {
+        return snapshot().field("keyUseCasesHeader").field("costSavingsSection").field("costSavingsValue").take();
+    }
+}
@@ -0,0 +1,38 @@
+package com.uitests.benchmarks;
+
+import com.uitests.driver.DriverManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+
+/**
+ * Headless browser session on the fixture home page, created through {@link DriverManager} exactly as the tests
+ * create theirs; {@code -Dheadless=false} shows the browser. Thread scoped because DriverManager keeps one session per thread.
+ */
+@State(Scope.Thread)
+public class BrowserState {
+
+    FixtureServer server;
+    WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = new FixtureServer();
+        if (System.getProperty("headless") == null) {
+            System.setProperty("headless", "true"); // env.properties is shared with the tests, which run headed
+        }
+        driver = DriverManager.getDriver();
+        driver.get(server.url("/index.html"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        DriverManager.quitDriver();
+        server.close();
+    }
+}
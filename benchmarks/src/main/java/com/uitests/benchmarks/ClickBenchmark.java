@@ -0,0 +1,51 @@
+package com.uitests.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code scrollAndClick} (scroll, settle, clickable check, native click) against {@code jsClick} (visibility
+ * check, script click) on a button below the fold of the fixture page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClickBenchmark {
+
+    private BenchmarkPage page;
+
+    @Setup(Level.Trial)
+    public void setUp(BrowserState browser) {
+        page = new BenchmarkPage();
+    }
+
+    @Setup(Level.Invocation)
+    public void scrollToTop(BrowserState browser) {
+        // Every click starts with the button out of view
+        page.scrollToTop();
+    }
+
+    @Benchmark
+    public void scrollAndClick() {
+        page.scrollAndClickNoop();
+    }
+
+    @Benchmark
+    public void jsClick() {
+        page.jsClickNoop();
+    }
+}
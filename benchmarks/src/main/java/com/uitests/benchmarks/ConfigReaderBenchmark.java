@@ -0,0 +1,49 @@
+package com.uitests.benchmarks;
+
+import com.uitests.utils.ConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of the configuration accessors called on hot paths (page constructors, waits, driver handout).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String getProperty() {
+        return ConfigReader.getProperty("wait");
+    }
+
+    @Benchmark
+    public String getPropertyWithDefault() {
+        return ConfigReader.getProperty("browser", "chrome");
+    }
+
+    @Benchmark
+    public int getIntProperty() {
+        return ConfigReader.getIntProperty("wait.slice.ms", 5000);
+    }
+
+    @Benchmark
+    public boolean getBooleanProperty() {
+        return ConfigReader.getBooleanProperty("driver.instrument", false);
+    }
+
+    @Benchmark
+    public long parseWaitTimeout() {
+        // What every BasePage constructor does to build its WebDriverWait
+        return Long.parseLong(ConfigReader.getProperty("wait"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.uitests.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution cost of the XPath locators used by HomePage and DocumentationPage against an equivalent CSS selector.
+ * Text-only XPaths (e.g. the Products button) have no CSS equivalent and are left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LocatorBenchmark {
+
+    private static final Map<String, String[]> LOCATORS = new HashMap<>();
+
+    static {
+        LOCATORS.put("cloudbeesCDROLink", new String[]{
+                "//a[contains(@href, '/products/cloudbees-cdro') and contains(text(), 'CloudBees CD/RO')]",
+                "a[href*='/products/cloudbees-cdro']"});
+        LOCATORS.put("documentationLink", new String[]{
+                "//a[@id='subcategory-item-0__Documentation']",
+                "#subcategory-item-0__Documentation"});
+        LOCATORS.put("searchInputField", new String[]{
+                "//input[@placeholder='Search all CloudBees Resources']",
+                "input[placeholder='Search all CloudBees Resources']"});
+        LOCATORS.put("activeSearchInput", new String[]{
+                "//input[@placeholder='Search']",
+                "input[placeholder='Search']"});
+        LOCATORS.put("paginationElement", new String[]{
+                "//ul[@class='pagination pagination-sm justify-content-center flex-wrap']",
+                "ul.pagination.pagination-sm.justify-content-center.flex-wrap"});
+    }
+
+    @Param({"cloudbeesCDROLink", "documentationLink", "searchInputField", "activeSearchInput", "paginationElement"})
+    public String locator;
+
+    private By xpath;
+    private By css;
+
+    @Setup
+    public void setUp() {
+        xpath = By.xpath(LOCATORS.get(locator)[0]);
+        css = By.cssSelector(LOCATORS.get(locator)[1]);
+    }
+
+    @Benchmark
+    public WebElement xpath(BrowserState browser) {
+        return browser.driver.findElement(xpath);
+    }
+
+    @Benchmark
+    public WebElement css(BrowserState browser) {
+        return browser.driver.findElement(css);
+    }
+}
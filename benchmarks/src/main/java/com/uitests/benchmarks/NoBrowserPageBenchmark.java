@@ -0,0 +1,115 @@
+package com.uitests.benchmarks;
+
+import com.uitests.driver.DriverContext;
+import com.uitests.driver.DriverManager;
+import com.uitests.pages.BasePage;
+import com.uitests.pages.CachingElementLocatorFactory;
+import com.uitests.pages.PageMetadata;
+import com.uitests.pages.PageRegistry;
+import com.uitests.pages.StaleAwareFieldDecorator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.PageFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link PageFactoryBenchmark} operations against a stub driver whose commands all return null, so the
+ * Java-side cost of wiring and handing out page objects is measured without browser round trips. Needs no browser
+ * and runs in its own fork, since it replaces the driver context of {@link DriverManager}. Run with
+ * {@code -prof gc} for the allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NoBrowserPageBenchmark {
+
+    @Param({"HomePage", "DocumentationPage", "CloudBeesCDROPage"})
+    public String page;
+
+    private Class<? extends BasePage> pageClass;
+    private BasePage instance;
+    private WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        driver = stubDriver();
+        WebDriver stub = driver;
+        DriverManager.useContext(new DriverContext() {
+            @Override
+            public WebDriver get() {
+                return stub;
+            }
+
+            @Override
+            public void set(WebDriver value) {
+            }
+
+            @Override
+            public void clear() {
+            }
+        });
+        pageClass = Class.forName("com.uitests.pages." + page).asSubclass(BasePage.class);
+        instance = pageClass.getDeclaredConstructor().newInstance();
+    }
+
+    @Benchmark
+    public Object cachingDecorator() {
+        PageFactory.initElements(new StaleAwareFieldDecorator(new CachingElementLocatorFactory(driver)), instance);
+        return instance;
+    }
+
+    @Benchmark
+    public Object defaultDecorator() {
+        PageFactory.initElements(driver, instance);
+        return instance;
+    }
+
+    @Benchmark
+    public Object cachedMetadata() {
+        PageMetadata.of(pageClass).wire(instance, new CachingElementLocatorFactory(driver));
+        return instance;
+    }
+
+    @Benchmark
+    public Object constructor() throws ReflectiveOperationException {
+        return pageClass.getDeclaredConstructor().newInstance();
+    }
+
+    @Benchmark
+    public Object registry() {
+        return PageRegistry.get(pageClass);
+    }
+
+    private static WebDriver stubDriver() {
+        return (WebDriver) Proxy.newProxyInstance(NoBrowserPageBenchmark.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "stub driver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
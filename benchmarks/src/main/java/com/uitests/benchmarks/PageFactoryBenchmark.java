@@ -0,0 +1,77 @@
+package com.uitests.benchmarks;
+
+import com.uitests.pages.BasePage;
+import com.uitests.pages.CachingElementLocatorFactory;
+import com.uitests.pages.PageMetadata;
+import com.uitests.pages.PageRegistry;
+import com.uitests.pages.StaleAwareFieldDecorator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.support.PageFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of wiring {@code @FindBy} fields per page object: the caching decorator against Selenium's default
+ * decorator and the class metadata BasePage wires from, the full page object constructor, and getting the page
+ * from the {@link PageRegistry} as the tests do after each navigation. Run with {@code -prof gc} for the
+ * allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageFactoryBenchmark {
+
+    @Param({"HomePage", "DocumentationPage", "CloudBeesCDROPage"})
+    public String page;
+
+    private Class<? extends BasePage> pageClass;
+    private BasePage instance;
+
+    @Setup(Level.Trial)
+    public void setUp(BrowserState browser) throws ReflectiveOperationException {
+        pageClass = Class.forName("com.uitests.pages." + page).asSubclass(BasePage.class);
+        instance = pageClass.getDeclaredConstructor().newInstance();
+    }
+
+    @Benchmark
+    public Object cachingDecorator(BrowserState browser) {
+        PageFactory.initElements(new StaleAwareFieldDecorator(new CachingElementLocatorFactory(browser.driver)), instance);
+        return instance;
+    }
+
+    @Benchmark
+    public Object defaultDecorator(BrowserState browser) {
+        PageFactory.initElements(browser.driver, instance);
+        return instance;
+    }
+
+    @Benchmark
+    public Object cachedMetadata(BrowserState browser) {
+        PageMetadata.of(pageClass).wire(instance, new CachingElementLocatorFactory(browser.driver));
+        return instance;
+    }
+
+    @Benchmark
+    public Object constructor() throws ReflectiveOperationException {
+        return pageClass.getDeclaredConstructor().newInstance();
+    }
+
+    @Benchmark
+    public Object registry() {
+        return PageRegistry.get(pageClass);
+    }
+}
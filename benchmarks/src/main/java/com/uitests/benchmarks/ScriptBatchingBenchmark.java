@@ -0,0 +1,63 @@
+package com.uitests.benchmarks;
+
+import com.uitests.pages.PageSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading URL, title and the visibility and text of three elements: one command per read against a single
+ * batched {@link PageSnapshot} script.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptBatchingBenchmark {
+
+    private static final By[] LOCATORS = {
+            By.xpath("//h2[contains(text(), 'Key Use Cases')]"),
+            By.xpath("//p[normalize-space()='Cost Savings']"),
+            By.xpath("//span[normalize-space()='$2m']")
+    };
+
+    private BenchmarkPage page;
+
+    @Setup(Level.Trial)
+    public void setUp(BrowserState browser) {
+        page = new BenchmarkPage();
+    }
+
+    @Benchmark
+    public void individualCommands(BrowserState browser, Blackhole blackhole) {
+        WebDriver driver = browser.driver;
+        blackhole.consume(driver.getCurrentUrl());
+        blackhole.consume(driver.getTitle());
+        for (By locator : LOCATORS) {
+            WebElement element = driver.findElement(locator);
+            blackhole.consume(element.isDisplayed());
+            blackhole.consume(element.getText());
+        }
+    }
+
+    @Benchmark
+    public PageSnapshot batchedSnapshot() {
+        return page.snapshotOfFields();
+    }
+}
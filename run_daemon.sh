@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Keeps one JVM with woven classes and warm browser sessions running, and runs tests in it (see TestDaemon).
+#
+# Usage: ./run_daemon.sh start [extra JVM arguments...]   builds once, then starts the daemon in the background
+#        ./run_daemon.sh run [suite.xml | Class[#method]...] runs tests in the daemon and streams the results
+#        ./run_daemon.sh status | stop
+#   ./run_daemon.sh run CloudBeesFlowTest#testCloudBeesFullFlow
+set -euo pipefail
+
+PORT=$(sed -n 's/^daemon.port=//p' src/test/resources/env.properties)
+PORT=${PORT:-7717}
+CLASSPATH_FILE=target/daemon.classpath
+LOG=target/daemon.log
+
+# Sends one request and prints the streamed answer; exits with the code of its END line
+request() {
+    if ! exec 3<>"/dev/tcp/127.0.0.1/$PORT" 2>/dev/null; then
+        echo "No test daemon on port $PORT; start it with ./run_daemon.sh start" >&2
+        exit 2
+    fi
+    echo "$*" >&3
+    local code=2
+    while IFS= read -r line <&3; do
+        if [[ $line == END\ * ]]; then
+            code=${line#END }
+            break
+        fi
+        echo "$line"
+    done
+    exec 3<&-
+    exit "$code"
+}
+
+case "${1:-}" in
+    start)
+        shift
+        mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile="$CLASSPATH_FILE"
+        deps=$(cat "$CLASSPATH_FILE")
+        weaver=$(tr ':' '\n' <<< "$deps" | grep aspectjweaver)
+        nohup java -javaagent:"$weaver" -Dallure.results.directory="$PWD/target/allure-results" "$@" \
+            -cp "target/test-classes:target/classes:$deps" com.uitests.utils.TestDaemon > "$LOG" 2>&1 &
+        echo "Starting test daemon (pid $!), log in $LOG"
+        # The daemon answers once its browser sessions are warm
+        for _ in $(seq 1 120); do
+            if (exec 3<>"/dev/tcp/127.0.0.1/$PORT" && echo STATUS >&3 && grep -q '^END' <&3) 2>/dev/null; then
+                echo "Test daemon ready on port $PORT"
+                exit 0
+            fi
+            sleep 1
+        done
+        echo "Test daemon did not come up, see $LOG" >&2
+        exit 1
+        ;;
+    run)
+        shift
+        request "RUN $*"
+        ;;
+    status)
+        request STATUS
+        ;;
+    stop)
+        request STOP
+        ;;
+    *)
+        sed -n '2,7p' "$0" | sed 's/^# \{0,1\}//'
+        exit 2
+        ;;
+esac
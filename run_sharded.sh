@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Runs the suite in N forked JVMs, each taking a share of the test methods balanced by historical
+# durations (see ShardSelector), then merges the Allure results of all shards into target/allure-results.
+#
+# Usage: ./run_sharded.sh [shards] [extra maven arguments...]
+#   ./run_sharded.sh 4 -Dheadless=true
+set -euo pipefail
+
+SHARDS=${1:-2}
+shift || true
+
+RESULTS=target/allure-results
+HISTORY=.test-history/durations.properties
+# All shards must split against the same history, even though each one updates it when it finishes
+SNAPSHOT=target/shard-history.properties
+
+mvn -B -q test-compile "$@"
+mkdir -p target
+if [ -f "$HISTORY" ]; then cp "$HISTORY" "$SNAPSHOT"; else : > "$SNAPSHOT"; fi
+
+pids=()
+for ((i = 0; i < SHARDS; i++)); do
+    rm -rf "target/allure-results-shard-$i"
+    mvn -B surefire:test \
+        -Dshard.index="$i" -Dshard.count="$SHARDS" -Dshard.history="$PWD/$SNAPSHOT" \
+        -Dallure.results.directory="$PWD/target/allure-results-shard-$i" \
+        -Dsurefire.reportNameSuffix="shard-$i" \
+        "$@" > "target/shard-$i.log" 2>&1 &
+    pids+=($!)
+done
+
+status=0
+for i in "${!pids[@]}"; do
+    if ! wait "${pids[$i]}"; then
+        echo "Shard $i failed, see target/shard-$i.log"
+        status=1
+    fi
+done
+
+# Allure result files have unique names, so merging is a copy
+rm -rf "$RESULTS"
+mkdir -p "$RESULTS"
+for ((i = 0; i < SHARDS; i++)); do
+    if [ -d "target/allure-results-shard-$i" ]; then
+        cp -r "target/allure-results-shard-$i/." "$RESULTS/"
+    fi
+done
+echo "Merged Allure results of $SHARDS shards into $RESULTS"
+exit $status
@@ -0,0 +1,296 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts and times every WebDriver command (findElement, executeScript, click, getText...) issued through a
+ * driver decorated by {@link #decorate}. Enabled with {@code driver.instrument=true}.
+ * <p>
+ * Run-wide and per-thread totals are LongAdders; the per-command breakdown of a thread lives in a map only that
+ * thread touches, so the hot path takes no locks. Per-test profiles are taken between {@link #startTest} and
+ * {@link #endTest}, and steps issuing more than {@code commands.stepBudget} commands are flagged as chatty.
+ */
+public final class CommandMetrics implements WebDriverListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandMetrics.class);
+
+    // Accessors that return sub-interfaces or wrappers without talking to the browser
+    static final Set<String> LOCAL_CALLS = new HashSet<>(Arrays.asList(
+            "manage", "navigate", "switchTo", "timeouts", "window", "logs", "getWrappedDriver", "getWrappedElement",
+            "getCoordinates", "toString", "hashCode", "equals"));
+
+    private static final CommandMetrics LISTENER = new CommandMetrics();
+    private static final Map<String, CommandStats> commands = new ConcurrentHashMap<>();
+    // Keyed by thread id: names are not unique and may be changed while the thread runs
+    private static final Map<Long, ThreadStats> threads = new ConcurrentHashMap<>();
+    private static final Map<String, TestProfile> tests = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> chattySteps = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ThreadStats> current = new ThreadLocal<>();
+    // Bumped by reset(), so threads drop the stats they cached before it
+    private static volatile int generation;
+
+    private CommandMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("driver.instrument", false);
+    }
+
+    /**
+     * Wraps the driver so that every command is reported to the metrics. Elements, navigation, options and
+     * other objects obtained from the returned driver are decorated as well.
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(LISTENER).decorate(driver);
+    }
+
+    static WebDriverListener listener() {
+        return LISTENER;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_CALLS.contains(method.getName())) {
+            currentStats().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        complete(method, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        complete(method, true);
+    }
+
+    private static void complete(Method method, boolean failed) {
+        String name = method.getName();
+        if (LOCAL_CALLS.contains(name)) {
+            return;
+        }
+        ThreadStats thread = currentStats();
+        long elapsed = System.nanoTime() - thread.pop();
+        thread.record(name, elapsed);
+        CommandStats stats = commands.computeIfAbsent(name, k -> new CommandStats());
+        stats.count.increment();
+        stats.nanos.add(elapsed);
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Starts the per-test profile of the calling thread.
+     */
+    public static void startTest(String testName) {
+        currentStats().startTest(testName);
+    }
+
+    /**
+     * Ends the per-test profile of the calling thread and logs it.
+     *
+     * @return The test's profile, or null if no test was started on this thread.
+     */
+    public static TestProfile endTest() {
+        TestProfile profile = currentStats().endTest();
+        if (profile != null) {
+            tests.put(profile.testName, profile);
+            logger.info("WebDriver commands for {}: {}", profile.testName, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * @return The number of commands the calling thread has issued so far; pass it to {@link #checkStep}.
+     */
+    public static long mark() {
+        return currentStats().commands.sum();
+    }
+
+    /**
+     * Flags the step if the calling thread issued more than {@code commands.stepBudget} commands since {@code mark}.
+     */
+    public static void checkStep(String step, long mark) {
+        long issued = currentStats().commands.sum() - mark;
+        int budget = ConfigReader.getIntProperty("commands.stepBudget", 50);
+        if (issued > budget) {
+            chattySteps.computeIfAbsent(step, k -> new LongAdder()).increment();
+            logger.warn("Chatty step {}: {} WebDriver commands (budget {})", step, issued, budget);
+        }
+    }
+
+    public static boolean isEmpty() {
+        return commands.isEmpty();
+    }
+
+    /**
+     * Forgets all command, thread, test and chatty-step totals, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        generation++;
+        commands.clear();
+        threads.clear();
+        tests.clear();
+        chattySteps.clear();
+    }
+
+    private static ThreadStats currentStats() {
+        ThreadStats stats = current.get();
+        if (stats == null || stats.generation != generation) {
+            int now = generation;
+            Thread thread = Thread.currentThread();
+            stats = threads.computeIfAbsent(thread.getId(), k -> new ThreadStats(now, thread.getName()));
+            current.set(stats);
+        }
+        return stats;
+    }
+
+    /**
+     * @return Per-command, per-thread and chatty-step totals for the run, busiest commands first.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        commands.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().nanos.sum(), a.getValue().nanos.sum()))
+                .forEach(e -> summary.append(String.format("  %-28s %s%n", e.getKey(), e.getValue())));
+        threads.forEach((id, stats) -> summary.append(String.format("  thread %-21s commands=%d, totalMs=%d%n",
+                stats.threadName + " #" + id, stats.commands.sum(), TimeUnit.NANOSECONDS.toMillis(stats.nanos.sum()))));
+        chattySteps.forEach((step, count) -> summary.append(String.format("  chatty step %-16s x%d%n", step, count.sum())));
+        return summary.toString();
+    }
+
+    private static final class CommandStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        @Override
+        public String toString() {
+            long n = count.sum();
+            return String.format("count=%d, errors=%d, totalMs=%d, avgMs=%.2f", n, errors.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(nanos.sum()), n == 0 ? 0.0 : nanos.sum() / (double) n / 1_000_000);
+        }
+    }
+
+    private static final class ThreadStats {
+        private final int generation;
+        private final String threadName;
+        private final LongAdder commands = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        // Owned by the thread: per-command counts and the start times of calls in progress
+        private final Map<String, long[]> byCommand = new HashMap<>();
+        private long[] starts = new long[8];
+        private int depth;
+        private String testName;
+        private Map<String, long[]> testBaseline;
+
+        private ThreadStats(int generation, String threadName) {
+            this.generation = generation;
+            this.threadName = threadName;
+        }
+
+        private void push(long start) {
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+            }
+            starts[depth++] = start;
+        }
+
+        private long pop() {
+            return depth == 0 ? System.nanoTime() : starts[--depth];
+        }
+
+        private void record(String command, long elapsed) {
+            commands.increment();
+            nanos.add(elapsed);
+            long[] entry = byCommand.computeIfAbsent(command, k -> new long[2]);
+            entry[0]++;
+            entry[1] += elapsed;
+        }
+
+        private void startTest(String name) {
+            testName = name;
+            testBaseline = copy(byCommand);
+        }
+
+        private TestProfile endTest() {
+            if (testName == null) {
+                return null;
+            }
+            Map<String, long[]> delta = new HashMap<>();
+            byCommand.forEach((command, entry) -> {
+                long[] before = testBaseline.getOrDefault(command, new long[2]);
+                if (entry[0] > before[0]) {
+                    delta.put(command, new long[]{entry[0] - before[0], entry[1] - before[1]});
+                }
+            });
+            TestProfile profile = new TestProfile(testName, delta);
+            testName = null;
+            testBaseline = null;
+            return profile;
+        }
+
+        private static Map<String, long[]> copy(Map<String, long[]> source) {
+            Map<String, long[]> copy = new HashMap<>();
+            source.forEach((k, v) -> copy.put(k, v.clone()));
+            return copy;
+        }
+    }
+
+    /**
+     * Commands issued by one test, by command name.
+     */
+    public static final class TestProfile {
+        private final String testName;
+        private final Map<String, long[]> byCommand;
+
+        private TestProfile(String testName, Map<String, long[]> byCommand) {
+            this.testName = testName;
+            this.byCommand = byCommand;
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        public long getCommandCount() {
+            return byCommand.values().stream().mapToLong(v -> v[0]).sum();
+        }
+
+        public long getCommandMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(byCommand.values().stream().mapToLong(v -> v[1]).sum());
+        }
+
+        public long getCount(String command) {
+            long[] entry = byCommand.get(command);
+            return entry == null ? 0 : entry[0];
+        }
+
+        @Override
+        public String toString() {
+            return getCommandCount() + " commands in " + getCommandMillis() + " ms (" + byCommand.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                    .map(e -> e.getKey() + "=" + e.getValue()[0])
+                    .collect(Collectors.joining(", ")) + ")";
+        }
+    }
+}
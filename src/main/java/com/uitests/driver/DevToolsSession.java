@@ -0,0 +1,131 @@
+package com.uitests.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Thin, CDP-version-agnostic wrapper around a driver's {@link DevTools} connection.
+ * Commands and events are addressed by their raw protocol names and exchanged as JSON maps, so the code does not
+ * depend on a particular {@code selenium-devtools-vNNN} artifact matching the installed browser.
+ * One instance is kept per driver; drivers without DevTools support (e.g. Firefox) yield an empty Optional.
+ */
+public final class DevToolsSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(DevToolsSession.class);
+    private static final Map<WebDriver, Optional<DevToolsSession>> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final Set<String> enabledDomains = ConcurrentHashMap.newKeySet();
+    private volatile String attachedWindow;
+
+    private DevToolsSession(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * @param driver A driver, possibly wrapped by a decorator.
+     * @return The DevTools session attached to the driver's current window, if the browser supports CDP. Empty for
+     * the tab-bound drivers of a {@link TabExecutor}, whose tab is not the one the session is attached to.
+     */
+    public static Optional<DevToolsSession> of(WebDriver driver) {
+        if (TabExecutor.isTabBound(driver)) {
+            return Optional.empty();
+        }
+        WebDriver raw = unwrap(driver);
+        synchronized (sessions) {
+            return sessions.computeIfAbsent(raw, DevToolsSession::connect);
+        }
+    }
+
+    /**
+     * Strips decorators (e.g. an event-firing wrapper) and returns the underlying browser driver.
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver current = driver;
+        while (current instanceof WrapsDriver) {
+            current = ((WrapsDriver) current).getWrappedDriver();
+        }
+        return current;
+    }
+
+    private static Optional<DevToolsSession> connect(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return Optional.empty();
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            return Optional.of(new DevToolsSession(devTools));
+        } catch (WebDriverException e) {
+            logger.warn("DevTools is not available for this session: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sends a raw CDP command.
+     *
+     * @param method Protocol method, e.g. "Network.setBlockedURLs".
+     * @param params Command parameters.
+     * @return The command result as a JSON map.
+     */
+    public Map<String, Object> send(String method, Map<String, Object> params) {
+        return devTools.send(new Command<Map<String, Object>>(method, params, input -> input.read(Json.MAP_TYPE)));
+    }
+
+    /**
+     * Sends "{domain}.enable" the first time a domain is requested on this session.
+     */
+    public void enable(String domain) {
+        if (enabledDomains.add(domain)) {
+            send(domain + ".enable", Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Subscribes to a raw CDP event. Listeners stay registered when the session is re-attached to another window.
+     *
+     * @param event    Protocol event, e.g. "Network.loadingFinished".
+     * @param listener Receives the event parameters as a JSON map.
+     */
+    public void addListener(String event, Consumer<Map<String, Object>> listener) {
+        devTools.addListener(new Event<Map<String, Object>>(event, input -> input.read(Json.MAP_TYPE)), listener);
+    }
+
+    /**
+     * Re-attaches the session to the given window (CDP target). Enabled domains have to be enabled again
+     * on the new target, so they are reset here. Attaching to the window already attached to does nothing.
+     * <p>
+     * The previous target is detached first, which ends everything enabled there: its paused Fetch requests are
+     * released and it runs without interception or blocking from then on. CDP events carry no session id through
+     * {@link DevTools}, so a second session could not be told apart from this one; only one window is
+     * instrumented at a time.
+     *
+     * @param windowHandle The window handle, which Chromium uses as the target id.
+     */
+    public synchronized void attachTo(String windowHandle) {
+        if (windowHandle.equals(attachedWindow)) {
+            return;
+        }
+        devTools.disconnectSession();
+        devTools.createSession(windowHandle);
+        enabledDomains.clear();
+        attachedWindow = windowHandle;
+    }
+}
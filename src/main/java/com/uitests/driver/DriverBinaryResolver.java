@@ -0,0 +1,192 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves browser driver binaries once per JVM and once per machine.
+ * Resolved paths are kept in an on-disk cache shared by all JVMs on the machine (guarded by a file lock), keyed by
+ * browser and installed browser version, so WebDriverManager only runs when the browser was upgraded or the cache
+ * entry is missing or older than {@code driver.cache.ttlHours}.
+ * In offline mode ({@code driver.offline=true}) the network is never touched and a missing entry is an error.
+ */
+public final class DriverBinaryResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverBinaryResolver.class);
+
+    private static final Pattern VERSION = Pattern.compile("\\d+(?:\\.\\d+)+");
+    private static final Map<String, String> resolvedPaths = new ConcurrentHashMap<>();
+    // FileChannel locks are held per JVM, so threads of the same JVM must also be serialised
+    private static final Object jvmLock = new Object();
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Makes the driver binary for the given browser available to Selenium by setting its system property.
+     *
+     * @param browser The name of the browser ("chrome", "firefox" or "edge").
+     * @throws IllegalArgumentException if the browser type is not supported.
+     * @throws IllegalStateException    in offline mode when no cached binary is available.
+     */
+    public static void resolve(String browser) {
+        long start = System.nanoTime();
+        String path = resolvedPaths.computeIfAbsent(browser, DriverBinaryResolver::resolveForMachine);
+        System.setProperty(driverProperty(browser), path);
+        LaunchTimings.recordResolution(System.nanoTime() - start);
+    }
+
+    public static boolean isOffline() {
+        return Boolean.parseBoolean(System.getProperty("driver.offline",
+                ConfigReader.getProperty("driver.offline", "false")));
+    }
+
+    private static String resolveForMachine(String browser) {
+        Path cacheDir = Paths.get(ConfigReader.getProperty("driver.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".cache", "uitests").toString()));
+        // A browser upgrade needs a matching driver, so entries are per installed browser version
+        String key = browser + "@" + detectBrowserVersion(browser);
+
+        synchronized (jvmLock) {
+            try {
+                Files.createDirectories(cacheDir);
+                try (FileChannel channel = FileChannel.open(cacheDir.resolve("resolved-drivers.properties"),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.lock();
+                    try {
+                        return resolveLocked(channel, browser, key, cacheDir);
+                    } finally {
+                        lock.release();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to access driver binary cache in " + cacheDir, e);
+            }
+        }
+    }
+
+    private static String resolveLocked(FileChannel channel, String browser, String key, Path cacheDir) throws IOException {
+        long ttlMillis = TimeUnit.HOURS.toMillis(ConfigReader.getIntProperty("driver.cache.ttlHours", 24));
+        boolean offline = isOffline();
+        Properties cache = read(channel);
+        String cachedPath = cache.getProperty(key + ".path");
+        long resolvedAt = Long.parseLong(cache.getProperty(key + ".resolvedAt", "0"));
+        boolean usable = cachedPath != null && Files.isExecutable(Paths.get(cachedPath));
+
+        if (usable && (offline || System.currentTimeMillis() - resolvedAt < ttlMillis)) {
+            logger.info("Using cached {} driver binary: {}", key, cachedPath);
+            return cachedPath;
+        }
+        if (offline) {
+            throw new IllegalStateException("Offline mode is enabled but no usable driver binary for " + key
+                    + " is cached in " + cacheDir + ". Run once with driver.offline=false to populate the cache.");
+        }
+
+        WebDriverManager manager = managerFor(browser);
+        manager.setup();
+        String path = manager.getDownloadedDriverPath();
+        cache.setProperty(key + ".path", path);
+        cache.setProperty(key + ".version", String.valueOf(manager.getDownloadedDriverVersion()));
+        cache.setProperty(key + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+        write(channel, cache);
+        logger.info("Resolved {} driver binary {} and cached it", key, path);
+        return path;
+    }
+
+    /**
+     * @return The version the installed browser reports with {@code --version}, or "unknown" if it cannot be found
+     * or asked, in which case entries fall back to expiring by {@code driver.cache.ttlHours} alone.
+     */
+    private static String detectBrowserVersion(String browser) {
+        Optional<Path> binary;
+        try {
+            binary = managerFor(browser).getBrowserPath();
+        } catch (RuntimeException e) {
+            logger.debug("Could not locate the {} browser: {}", browser, e.getMessage());
+            binary = Optional.empty();
+        }
+        if (!binary.isPresent()) {
+            return "unknown";
+        }
+        try {
+            Process process = new ProcessBuilder(binary.get().toString(), "--version").redirectErrorStream(true).start();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return "unknown";
+            }
+            Matcher version = VERSION.matcher(new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            return version.find() ? version.group() : "unknown";
+        } catch (IOException e) {
+            logger.debug("Could not ask {} for its version: {}", binary.get(), e.getMessage());
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    private static Properties read(FileChannel channel) throws IOException {
+        Properties properties = new Properties();
+        channel.position(0);
+        // Not closed on purpose: closing the stream would close the locked channel
+        InputStream input = Channels.newInputStream(channel);
+        properties.load(input);
+        return properties;
+    }
+
+    private static void write(FileChannel channel, Properties properties) throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        OutputStream output = Channels.newOutputStream(channel);
+        properties.store(output, "Resolved WebDriver binaries");
+        output.flush();
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "chrome":
+                return WebDriverManager.chromedriver();
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser + ". Supported browsers are: chrome, firefox, edge.");
+        }
+    }
+
+    private static String driverProperty(String browser) {
+        switch (browser) {
+            case "chrome":
+                return "webdriver.chrome.driver";
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser + ". Supported browsers are: chrome, firefox, edge.");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.uitests.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Where {@link DriverManager} keeps the driver of the running test. The default binds it to the current thread;
+ * the Java 21 build can install a context scoped to the test task instead, so that threads the test forks see
+ * the same driver and nothing outlives the task.
+ */
+public interface DriverContext {
+
+    /**
+     * @return The driver of the running test, or null if it has none yet.
+     */
+    WebDriver get();
+
+    void set(WebDriver driver);
+
+    void clear();
+
+    /**
+     * @return A context backed by a {@link ThreadLocal}, the behaviour on platform threads.
+     */
+    static DriverContext threadLocal() {
+        ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+        return new DriverContext() {
+            @Override
+            public WebDriver get() {
+                return driver.get();
+            }
+
+            @Override
+            public void set(WebDriver value) {
+                driver.set(value);
+            }
+
+            @Override
+            public void clear() {
+                driver.remove();
+            }
+        };
+    }
+}
@@ -1,7 +1,6 @@
 package com.uitests.driver;
 
 import com.uitests.utils.ConfigReader;
-import io.github.bonigarcia.wdm.WebDriverManager; // Using WebDriverManager for easier driver setup
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -11,6 +10,7 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 
 import java.time.Duration;
+import java.util.function.Supplier;
 
 public class DriverFactory {
 
@@ -22,13 +22,24 @@ public class DriverFactory {
      * @throws IllegalArgumentException if the browser type is not supported.
      */
     public WebDriver createDriver(String browser) {
+        return createDriver(browser, isHeadless());
+    }
+
+    /**
+     * Creates a WebDriver instance for the given browser type and headless flag.
+     *
+     * @param browser  The name of the browser (e.g., "chrome", "firefox", "edge").
+     * @param headless Whether the browser should be started without a visible window.
+     * @return A WebDriver instance.
+     * @throws IllegalArgumentException if the browser type is not supported.
+     */
+    public WebDriver createDriver(String browser, boolean headless) {
         WebDriver driver;
-        boolean headless = Boolean.parseBoolean(System.getProperty("headless", ConfigReader.getProperty("headless"))); // Read headless mode from system property
 
         switch (browser.toLowerCase()) {
             case "chrome":
-                // WebDriverManager automatically downloads and sets up ChromeDriver
-                WebDriverManager.chromedriver().setup();
+                // Resolved once per JVM/machine through WebDriverManager, or from the on-disk cache
+                DriverBinaryResolver.resolve("chrome");
                 ChromeOptions chromeOptions = new ChromeOptions();
                 chromeOptions.addArguments("--start-maximized");
                 chromeOptions.addArguments("--disable-gpu");
@@ -38,28 +49,31 @@ public class DriverFactory {
                     chromeOptions.addArguments("--headless");
                     chromeOptions.addArguments("--window-size=1920,1080"); // Specify window size for headless
                 }
-                driver = new ChromeDriver(chromeOptions);
+                LeanLoadProfile.configure(chromeOptions);
+                driver = launch(() -> new ChromeDriver(chromeOptions));
                 break;
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
+                DriverBinaryResolver.resolve("firefox");
                 FirefoxOptions firefoxOptions = new FirefoxOptions();
                 if (headless) {
                     firefoxOptions.addArguments("--headless");
                     firefoxOptions.addArguments("--width=1920");
                     firefoxOptions.addArguments("--height=1080");
                 }
-                driver = new FirefoxDriver(firefoxOptions);
+                LeanLoadProfile.configure(firefoxOptions);
+                driver = launch(() -> new FirefoxDriver(firefoxOptions));
                 driver.manage().window().maximize(); // Firefox needs explicit maximize after init sometimes
                 break;
             case "edge":
-                WebDriverManager.edgedriver().setup();
+                DriverBinaryResolver.resolve("edge");
                 EdgeOptions edgeOptions = new EdgeOptions();
                 edgeOptions.addArguments("--start-maximized");
                 if (headless) {
                     edgeOptions.addArguments("--headless");
                     edgeOptions.addArguments("--window-size=1920,1080");
                 }
-                driver = new EdgeDriver(edgeOptions);
+                LeanLoadProfile.configure(edgeOptions);
+                driver = launch(() -> new EdgeDriver(edgeOptions));
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported browser: " + browser + ". Supported browsers are: chrome, firefox, edge.");
@@ -67,6 +81,34 @@ public class DriverFactory {
 
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10)); // Default implicit wait
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(60)); // Default page load timeout
+        LeanLoadProfile.apply(driver); // Resource blocking, only when leanload.enabled=true
+        NetworkReplay.apply(driver); // Record/replay interception, only when network.mode is record or replay
         return driver;
     }
-}
\ No newline at end of file
+
+    private WebDriver launch(Supplier<WebDriver> browserLauncher) {
+        LaunchAdmission.acquire(); // Waits while the machine is busy starting other browsers
+        long start = System.nanoTime();
+        boolean launched = false;
+        try {
+            WebDriver driver = browserLauncher.get();
+            launched = true;
+            return driver;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            LaunchAdmission.release(elapsed, launched);
+            if (launched) {
+                LaunchTimings.recordLaunch(elapsed);
+            }
+        }
+    }
+
+    /**
+     * Resolves the headless flag, giving the "headless" system property precedence over env.properties.
+     *
+     * @return true if browsers should be started in headless mode.
+     */
+    public static boolean isHeadless() {
+        return Boolean.parseBoolean(System.getProperty("headless", ConfigReader.getProperty("headless"))); // Read headless mode from system property
+    }
+}
@@ -3,37 +3,200 @@ package com.uitests.driver;
 
 import com.uitests.utils.ConfigReader;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class DriverManager {
 
-    // ThreadLocal WebDriver instance to ensure thread safety for parallel execution
-    private static final ThreadLocal<WebDriver> webDriverThreadLocal = new ThreadLocal<>();
+    private static final Logger logger = LoggerFactory.getLogger(DriverManager.class);
+
+    // Per-test driver binding; a ThreadLocal unless a scoped context was installed for virtual threads
+    private static volatile DriverContext context = DriverContext.threadLocal();
     private static final DriverFactory driverFactory = new DriverFactory();
+    // Created on first use so that the pool (and its shutdown hook) only exists in pooled mode
+    private static volatile DriverPool driverPool;
+    private static final List<Consumer<WebDriver>> releaseListeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Gets the current WebDriver instance for this thread.
+     * Gets the current WebDriver instance for this test.
      * If an instance does not exist, it initializes one based on the "browser" system property.
+     * In pooled mode the instance is checked out from the {@link DriverPool} instead of launched.
+     * Blocks while {@code driver.maxSessions} sessions are held by other tests.
+     * With {@code driver.instrument=true} the returned driver reports every command to {@link CommandMetrics},
+     * with {@code trace.enabled=true} to the {@link TraceRecorder}.
      *
      * @return The WebDriver instance for the current thread.
      */
     public static WebDriver getDriver() {
-        if (webDriverThreadLocal.get() == null) {
+        WebDriver current = context.get();
+        if (current == null) {
             // Default to Chrome if browser property is not set
             String browserType = System.getProperty("browser", ConfigReader.getProperty("browser"));
-            WebDriver driver = driverFactory.createDriver(browserType);
-            webDriverThreadLocal.set(driver);
+            DriverSlots.acquire();
+            WebDriver driver;
+            try {
+                driver = DriverPool.isEnabled()
+                        ? getPool().checkout(browserType, DriverFactory.isHeadless())
+                        : driverFactory.createDriver(browserType);
+            } catch (RuntimeException e) {
+                DriverSlots.release();
+                throw e;
+            }
+            current = instrument(driver);
+            context.set(current);
         }
-        return webDriverThreadLocal.get();
+        return current;
     }
 
     /**
-     * Quits the WebDriver instance for the current thread and removes it from ThreadLocal.
+     * @return The WebDriver instance of the current test, or null if none was created yet. Never launches one.
+     */
+    public static WebDriver getExistingDriver() {
+        return context.get();
+    }
+
+    private static WebDriver instrument(WebDriver driver) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (CommandMetrics.isEnabled()) {
+            listeners.add(CommandMetrics.listener());
+        }
+        if (TraceRecorder.isEnabled()) {
+            listeners.add(TraceRecorder.commandListener());
+        }
+        // One decorator for all listeners, so each command crosses a single proxy layer
+        return listeners.isEmpty() ? driver
+                : new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+    }
+
+    /**
+     * Quits the WebDriver instance of the current test and removes it from the driver context.
+     * Pooled sessions are reset and handed back to the pool instead of being quit.
      */
     public static void quitDriver() {
-        WebDriver driver = webDriverThreadLocal.get();
+        WebDriver driver = context.get();
         if (driver != null) {
-            driver.quit();
-            webDriverThreadLocal.remove();
+            for (Consumer<WebDriver> listener : releaseListeners) {
+                try {
+                    listener.accept(driver);
+                } catch (RuntimeException e) {
+                    logger.warn("Driver release listener failed: {}", e.getMessage());
+                }
+            }
+            try {
+                // The pool tracks the undecorated session
+                if (driverPool == null || !driverPool.release(DevToolsSession.unwrap(driver))) {
+                    driver.quit();
+                }
+            } finally {
+                context.clear();
+                DriverSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Quits a driver still bound to the current test context, e.g. one left behind by a test whose teardown did
+     * not run. On pooled platform threads such a driver would otherwise be picked up by the next test.
+     *
+     * @param owner Description of the code that found the leak, for the log.
+     * @return True if a leaked driver was found and released.
+     */
+    public static boolean releaseLeakedDriver(String owner) {
+        if (context.get() == null) {
+            return false;
+        }
+        logger.warn("{} found a driver that was never quit ({}); releasing it", owner, Thread.currentThread());
+        quitDriver();
+        return true;
+    }
+
+    /**
+     * Runs {@code task} with {@code driver} as the current test's driver, e.g. on a worker thread serving one tab
+     * of the test's session. The driver is neither counted against {@code driver.maxSessions} nor quit afterwards.
+     */
+    public static <T> T callWithDriver(WebDriver driver, Callable<T> task) throws Exception {
+        WebDriver previous = context.get();
+        context.set(driver);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                context.clear();
+            } else {
+                context.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Replaces the per-thread driver binding, e.g. with a context scoped to each test task. Must be called
+     * before the first driver is created.
+     */
+    public static void useContext(DriverContext driverContext) {
+        context = driverContext;
+    }
+
+    /**
+     * Caps concurrent sessions at {@code limit} unless {@code driver.maxSessions} is configured.
+     */
+    public static void setDefaultSessionLimit(int limit) {
+        DriverSlots.setDefaultLimit(limit);
+    }
+
+    /**
+     * @return Total time tests waited for a free session slot; see {@code driver.maxSessions}.
+     */
+    public static long getSessionWaitMillis() {
+        return DriverSlots.getWaitMillis();
+    }
+
+    /**
+     * Registers a callback invoked with the thread's driver just before it is quit or handed back to the pool.
+     * Components that cache per-session state use it to forget that state, since a pooled session is reset
+     * and reused by another test.
+     *
+     * @param listener Callback receiving the driver being released.
+     */
+    public static void addReleaseListener(Consumer<WebDriver> listener) {
+        releaseListeners.add(listener);
+    }
+
+    /**
+     * Pre-launches pooled sessions for the given browser so the first tests of a run get warm sessions.
+     * Does nothing unless pooled mode is enabled.
+     *
+     * @param browser The name of the browser (e.g., "chrome", "firefox", "edge").
+     */
+    public static void warmUpPool(String browser) {
+        if (DriverPool.isEnabled()) {
+            int size = ConfigReader.getIntProperty("driver.pool.size", 2);
+            getPool().warmUp(browser, DriverFactory.isHeadless(), size);
+        }
+    }
+
+    /**
+     * @return The pool counters, or null if pooled mode has not been used in this JVM.
+     */
+    public static DriverPool.Stats getPoolStats() {
+        return driverPool == null ? null : driverPool.getStats();
+    }
+
+    private static DriverPool getPool() {
+        if (driverPool == null) {
+            synchronized (DriverManager.class) {
+                if (driverPool == null) {
+                    driverPool = new DriverPool(driverFactory);
+                }
+            }
         }
+        return driverPool;
     }
-}
\ No newline at end of file
+}
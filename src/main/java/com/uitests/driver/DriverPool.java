@@ -0,0 +1,353 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of pre-launched browser sessions keyed by browser type and headless flag.
+ * Sessions are checked out per test, reset on release (extra tabs closed, cookies and storage cleared,
+ * navigated to about:blank) and recycled after a configurable number of uses.
+ */
+public class DriverPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+
+    private final DriverFactory driverFactory;
+    private final int maxSize;
+    private final int maxUses;
+
+    private final Map<String, ConcurrentLinkedDeque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger liveSessions = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong launches = new AtomicLong();
+    private final AtomicLong launchNanos = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+
+    public DriverPool(DriverFactory driverFactory) {
+        this(driverFactory,
+                ConfigReader.getIntProperty("driver.pool.size", 2),
+                ConfigReader.getIntProperty("driver.pool.maxUses", 20));
+    }
+
+    public DriverPool(DriverFactory driverFactory, int maxSize, int maxUses) {
+        this.driverFactory = driverFactory;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+    }
+
+    /**
+     * Checks whether pooled mode is switched on, either through the "driver.pool.enabled" system property
+     * or through env.properties.
+     *
+     * @return true if sessions should be served from the pool.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("driver.pool.enabled",
+                ConfigReader.getProperty("driver.pool.enabled", "false")));
+    }
+
+    /**
+     * Checks out a session for the given browser and headless flag. Idle sessions are reused first;
+     * otherwise a new session is launched, pooled while the pool has capacity and unpooled beyond that.
+     *
+     * @param browser  The name of the browser (e.g., "chrome", "firefox", "edge").
+     * @param headless Whether the session should be headless.
+     * @return A WebDriver instance ready for a test.
+     */
+    public WebDriver checkout(String browser, boolean headless) {
+        String key = keyOf(browser, headless);
+        PooledSession session;
+        while ((session = idleDeque(key).pollFirst()) != null) {
+            if (isAlive(session.driver)) {
+                hits.incrementAndGet();
+                return lease(session);
+            }
+            logger.warn("Discarding dead pooled session for {}", key);
+            retire(session);
+        }
+
+        misses.incrementAndGet();
+        boolean pooled = reserveSlot();
+        session = new PooledSession(key, launch(browser, headless), pooled);
+        if (!pooled) {
+            logger.info("Driver pool is at capacity ({}), launching an unpooled session for {}", maxSize, key);
+        }
+        return lease(session);
+    }
+
+    /**
+     * Returns a session to the pool. Sessions that exceeded their use count, fail to reset or were
+     * launched beyond capacity are quit instead.
+     *
+     * @param driver The driver previously obtained from {@link #checkout(String, boolean)}.
+     * @return false if the driver was not checked out from this pool.
+     */
+    public boolean release(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            return false;
+        }
+        if (!session.pooled) {
+            quietlyQuit(session.driver);
+            return true;
+        }
+        if (session.uses >= maxUses) {
+            logger.info("Recycling pooled session for {} after {} uses", session.key, session.uses);
+            recycled.incrementAndGet();
+            retire(session);
+            return true;
+        }
+        if (!reset(session.driver)) {
+            retire(session);
+            return true;
+        }
+        idleDeque(session.key).offerFirst(session);
+        return true;
+    }
+
+    /**
+     * Launches sessions in parallel until the pool holds {@code count} idle sessions for the given key.
+     * Blocks until all launches have completed.
+     *
+     * @param browser  The name of the browser.
+     * @param headless Whether the sessions should be headless.
+     * @param count    The number of idle sessions to have ready.
+     */
+    public void warmUp(String browser, boolean headless, int count) {
+        String key = keyOf(browser, headless);
+        int toLaunch = Math.max(0, count - idleDeque(key).size());
+        if (toLaunch == 0) {
+            return;
+        }
+        logger.info("Warming up {} pooled session(s) for {}", toLaunch, key);
+        ExecutorService executor = Executors.newFixedThreadPool(toLaunch);
+        try {
+            List<Future<?>> launchesInFlight = new ArrayList<>();
+            for (int i = 0; i < toLaunch; i++) {
+                if (!reserveSlot()) {
+                    break;
+                }
+                launchesInFlight.add(executor.submit(() -> {
+                    try {
+                        idleDeque(key).offerLast(new PooledSession(key, launch(browser, headless), true));
+                    } catch (RuntimeException e) {
+                        liveSessions.decrementAndGet();
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> launch : launchesInFlight) {
+                try {
+                    launch.get();
+                } catch (Exception e) {
+                    logger.warn("Failed to pre-launch a pooled session for {}: {}", key, e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Quits every idle session. Leased sessions are quit when they are released.
+     */
+    public void shutdown() {
+        for (ConcurrentLinkedDeque<PooledSession> deque : idleSessions.values()) {
+            PooledSession session;
+            while ((session = deque.pollFirst()) != null) {
+                retire(session);
+            }
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.get(), misses.get(), launches.get(), launchNanos.get(), recycled.get(), liveSessions.get());
+    }
+
+    private WebDriver lease(PooledSession session) {
+        session.uses++;
+        leasedSessions.put(session.driver, session);
+        return session.driver;
+    }
+
+    private WebDriver launch(String browser, boolean headless) {
+        long start = System.nanoTime();
+        WebDriver driver = driverFactory.createDriver(browser, headless);
+        long elapsed = System.nanoTime() - start;
+        launches.incrementAndGet();
+        launchNanos.addAndGet(elapsed);
+        logger.info("Launched {} session in {} ms", browser, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return driver;
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = liveSessions.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (liveSessions.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void retire(PooledSession session) {
+        if (session.pooled) {
+            liveSessions.decrementAndGet();
+        }
+        quietlyQuit(session.driver);
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String keep = handles.iterator().next();
+            for (String handle : handles) {
+                driver.switchTo().window(handle);
+                clearOriginState(driver);
+                if (!handle.equals(keep)) {
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(keep);
+            if (driver instanceof HasCdp) {
+                // Clears cookies for every domain, not just the one of the current document
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException e) {
+            logger.warn("Failed to reset pooled session, retiring it: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void clearOriginState(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); } catch (e) {}" +
+                "try { window.sessionStorage.clear(); } catch (e) {}");
+        driver.manage().deleteAllCookies();
+    }
+
+    private boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandles();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void quietlyQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            logger.warn("Failed to quit session cleanly: {}", e.getMessage());
+        }
+    }
+
+    private ConcurrentLinkedDeque<PooledSession> idleDeque(String key) {
+        return idleSessions.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static String keyOf(String browser, boolean headless) {
+        return browser.toLowerCase() + (headless ? ":headless" : ":headed");
+    }
+
+    private static final class PooledSession {
+        private final String key;
+        private final WebDriver driver;
+        private final boolean pooled;
+        private int uses;
+
+        private PooledSession(String key, WebDriver driver, boolean pooled) {
+            this.key = key;
+            this.driver = driver;
+            this.pooled = pooled;
+        }
+    }
+
+    /**
+     * Point-in-time view of the pool counters.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long launches;
+        private final long launchNanos;
+        private final long recycled;
+        private final int liveSessions;
+
+        private Stats(long hits, long misses, long launches, long launchNanos, long recycled, int liveSessions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.launches = launches;
+            this.launchNanos = launchNanos;
+            this.recycled = recycled;
+            this.liveSessions = liveSessions;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getLaunches() {
+            return launches;
+        }
+
+        public long getTotalLaunchMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(launchNanos);
+        }
+
+        public long getAverageLaunchMillis() {
+            return launches == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(launchNanos / launches);
+        }
+
+        public long getRecycled() {
+            return recycled;
+        }
+
+        public int getLiveSessions() {
+            return liveSessions;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, hitRate=%.2f, launches=%d, avgLaunchMs=%d, totalLaunchMs=%d, recycled=%d, live=%d",
+                    hits, misses, getHitRate(), launches, getAverageLaunchMillis(), getTotalLaunchMillis(), recycled, liveSessions);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of browser sessions held by tests at the same time ({@code driver.maxSessions}). Without a
+ * configured or default limit, {@code admission.capSessions=true} caps sessions at what the machine holds by
+ * {@link LaunchAdmission#sessionCapacity()}. With a bounded TestNG thread pool the pool size is the real limit; when test methods run on virtual threads
+ * this is what keeps the number of browsers bounded while any number of tests wait cheaply for a slot.
+ */
+final class DriverSlots {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverSlots.class);
+
+    private static volatile Semaphore slots;
+    private static volatile boolean configured;
+    private static int defaultLimit;
+    private static final LongAdder waitNanos = new LongAdder();
+
+    private DriverSlots() {
+    }
+
+    /**
+     * Sets the cap used when {@code driver.maxSessions} is not configured, e.g. the suite's thread count.
+     * Has no effect once the first slot was taken.
+     */
+    static synchronized void setDefaultLimit(int limit) {
+        if (!configured) {
+            defaultLimit = limit;
+        }
+    }
+
+    /**
+     * Blocks until a session slot is free. Every acquire is paired with one {@link #release}.
+     */
+    static void acquire() {
+        Semaphore semaphore = semaphore();
+        if (semaphore == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session slot", e);
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        if (waited > TimeUnit.SECONDS.toNanos(1)) {
+            logger.info("Waited {} ms for a browser session slot", TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+    }
+
+    static void release() {
+        Semaphore semaphore = slots;
+        if (semaphore != null) {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * @return Total time tests spent waiting for a session slot.
+     */
+    static long getWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    private static Semaphore semaphore() {
+        if (!configured) {
+            synchronized (DriverSlots.class) {
+                if (!configured) {
+                    int max = ConfigReader.getIntProperty("driver.maxSessions", 0);
+                    max = max > 0 ? max : defaultLimit;
+                    if (max <= 0 && ConfigReader.getBooleanProperty("admission.capSessions", false)) {
+                        max = LaunchAdmission.sessionCapacity();
+                    }
+                    if (max > 0) {
+                        logger.info("Limiting concurrent browser sessions to {}", max);
+                        slots = new Semaphore(max, true);
+                    }
+                    configured = true;
+                }
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,237 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Admission control for browser launches, so that workers starting at once do not oversubscribe the machine.
+ * A launch is admitted when fewer than the current limit of launches are in flight, enough memory is available
+ * for another browser ({@code MemAvailable} on Linux, which counts reclaimable page cache; free physical memory
+ * elsewhere), and the previous launch started at least {@code admission.staggerMillis} ago.
+ * <p>
+ * The in-flight limit adapts to measured launch latency (additive increase, multiplicative decrease): it starts
+ * at half the cores, grows by one after a launch close to the fastest seen so far, and halves when a launch takes
+ * more than {@code admission.slowPercent} of that or fails. Time spent waiting for admission is recorded.
+ * Disabled with {@code admission.enabled=false}.
+ */
+public final class LaunchAdmission {
+
+    private static final Logger logger = LoggerFactory.getLogger(LaunchAdmission.class);
+    private static final long MB = 1024L * 1024L;
+
+    private static final ReentrantLock lock = new ReentrantLock(true);
+    private static final Condition changed = lock.newCondition();
+    private static final int cores = Runtime.getRuntime().availableProcessors();
+    private static final int maxLimit = configuredOr("admission.maxLaunches", cores);
+    private static final long memoryPerBrowser = ConfigReader.getIntProperty("admission.memoryPerBrowserMb", 400) * MB;
+    private static final long staggerNanos = TimeUnit.MILLISECONDS.toNanos(ConfigReader.getIntProperty("admission.staggerMillis", 200));
+    private static final int slowPercent = ConfigReader.getIntProperty("admission.slowPercent", 200);
+    private static final long maxWaitNanos = TimeUnit.SECONDS.toNanos(ConfigReader.getIntProperty("admission.maxWaitSeconds", 120));
+
+    // Guarded by lock
+    private static int limit = Math.max(1, Math.min(maxLimit, cores / 2));
+    private static int inFlight;
+    private static long lastStartNanos;
+    private static long fastestLaunchNanos = Long.MAX_VALUE;
+
+    private static final LongAdder admitted = new LongAdder();
+    private static final LongAdder waitNanos = new LongAdder();
+    private static final LongAdder memoryWaits = new LongAdder();
+    private static volatile long maxWait;
+    private static volatile int peakLimit = limit;
+    private static volatile int lowestLimit = limit;
+
+    private LaunchAdmission() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("admission.enabled", true);
+    }
+
+    /**
+     * Blocks until a launch may start. Every call must be followed by {@link #release}. After
+     * {@code admission.maxWaitSeconds} the launch is admitted anyway, so a wrong estimate never stalls the run.
+     */
+    static void acquire() {
+        if (!isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        boolean waitedForMemory = false;
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    logger.warn("Admitting a browser launch after waiting {} s; {} launches in flight, limit {}",
+                            TimeUnit.NANOSECONDS.toSeconds(now - start), inFlight, limit);
+                    break;
+                }
+                long wait;
+                if (inFlight >= limit) {
+                    wait = deadline - now;
+                } else if (freeMemory() < memoryPerBrowser) {
+                    waitedForMemory = true;
+                    wait = TimeUnit.MILLISECONDS.toNanos(250);
+                } else if (now - lastStartNanos < staggerNanos) {
+                    wait = staggerNanos - (now - lastStartNanos);
+                } else {
+                    break;
+                }
+                changed.awaitNanos(Math.min(wait, deadline - now));
+            }
+            inFlight++;
+            lastStartNanos = System.nanoTime();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to launch a browser", e);
+        } finally {
+            lock.unlock();
+        }
+        long waited = System.nanoTime() - start;
+        admitted.increment();
+        waitNanos.add(waited);
+        maxWait = Math.max(maxWait, waited);
+        if (waitedForMemory) {
+            memoryWaits.increment();
+        }
+        if (waited > TimeUnit.SECONDS.toNanos(1)) {
+            logger.info("Browser launch admitted after {} ms", TimeUnit.NANOSECONDS.toMillis(waited));
+        }
+    }
+
+    /**
+     * Ends an admitted launch and adapts the limit to how it went.
+     *
+     * @param launchNanos How long the launch took.
+     * @param succeeded   False if the launch failed.
+     */
+    static void release(long launchNanos, boolean succeeded) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            inFlight--;
+            if (succeeded) {
+                fastestLaunchNanos = Math.min(fastestLaunchNanos, launchNanos);
+            }
+            int previous = limit;
+            if (!succeeded || launchNanos * 100 > fastestLaunchNanos * slowPercent) {
+                limit = Math.max(1, limit / 2);
+            } else if (launchNanos * 100 <= fastestLaunchNanos * 120) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            if (limit != previous) {
+                logger.info("Launch concurrency {} -> {} (launch took {} ms, fastest {} ms{})", previous, limit,
+                        TimeUnit.NANOSECONDS.toMillis(launchNanos), TimeUnit.NANOSECONDS.toMillis(fastestLaunchNanos),
+                        succeeded ? "" : ", failed");
+                peakLimit = Math.max(peakLimit, limit);
+                lowestLimit = Math.min(lowestLimit, limit);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return How many browsers the machine can hold at once by cores and total memory; the session cap when
+     * {@code admission.capSessions=true} and no other limit is set.
+     */
+    static int sessionCapacity() {
+        long total = totalMemory();
+        int byMemory = total <= 0 ? cores : (int) Math.max(1, total / memoryPerBrowser);
+        return Math.max(1, Math.min(cores, byMemory));
+    }
+
+    public static long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    /**
+     * @return Total time launches waited for admission.
+     */
+    public static long getQueueWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    public static String summary() {
+        long count = admitted.sum();
+        return String.format("admitted=%d, queueWaitMs=%d, avgWaitMs=%d, maxWaitMs=%d, memoryWaits=%d, limit=%d (range %d-%d of %d)",
+                count, getQueueWaitMillis(), count == 0 ? 0 : getQueueWaitMillis() / count,
+                TimeUnit.NANOSECONDS.toMillis(maxWait), memoryWaits.sum(), currentLimit(), lowestLimit, peakLimit, maxLimit);
+    }
+
+    private static int currentLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("deprecation") // getFreePhysicalMemorySize is the Java 11 name
+    private static long freeMemory() {
+        // Free memory alone excludes the page cache the kernel would give up for a new browser
+        long available = memAvailable();
+        if (available >= 0) {
+            return available;
+        }
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getFreePhysicalMemorySize();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return MemAvailable from /proc/meminfo in bytes, or -1 where it does not exist.
+     */
+    private static long memAvailable() {
+        Path meminfo = Paths.get("/proc/meminfo");
+        if (!Files.isReadable(meminfo)) {
+            return -1;
+        }
+        try (Stream<String> lines = Files.lines(meminfo)) {
+            return lines.filter(line -> line.startsWith("MemAvailable:"))
+                    .map(line -> line.replaceAll("\\D+", ""))
+                    .filter(kb -> !kb.isEmpty())
+                    .mapToLong(kb -> Long.parseLong(kb) * 1024L)
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException | UncheckedIOException e) {
+            return -1;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static long totalMemory() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getTotalPhysicalMemorySize();
+        }
+        return -1;
+    }
+
+    private static int configuredOr(String key, int fallback) {
+        int value = ConfigReader.getIntProperty(key, 0);
+        return value > 0 ? value : fallback;
+    }
+}
@@ -0,0 +1,49 @@
+package com.uitests.driver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run-wide split of session creation latency into driver binary resolution and the browser launch itself.
+ */
+public final class LaunchTimings {
+
+    private static final LongAdder resolutions = new LongAdder();
+    private static final LongAdder resolutionNanos = new LongAdder();
+    private static final LongAdder launches = new LongAdder();
+    private static final LongAdder launchNanos = new LongAdder();
+
+    private LaunchTimings() {
+    }
+
+    static void recordResolution(long nanos) {
+        resolutions.increment();
+        resolutionNanos.add(nanos);
+    }
+
+    static void recordLaunch(long nanos) {
+        launches.increment();
+        launchNanos.add(nanos);
+    }
+
+    public static long getLaunchCount() {
+        return launches.sum();
+    }
+
+    /**
+     * Forgets the resolutions and launches recorded so far, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        resolutions.reset();
+        resolutionNanos.reset();
+        launches.reset();
+        launchNanos.reset();
+    }
+
+    public static String summary() {
+        return String.format("resolutions=%d, resolutionMs=%d, launches=%d, launchMs=%d, avgLaunchMs=%d",
+                resolutions.sum(), TimeUnit.NANOSECONDS.toMillis(resolutionNanos.sum()),
+                launches.sum(), TimeUnit.NANOSECONDS.toMillis(launchNanos.sum()),
+                launches.sum() == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(launchNanos.sum() / launches.sum()));
+    }
+}
@@ -0,0 +1,211 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * "Lean load" session profile: blocks heavy or irrelevant resources (images, media, fonts, analytics, ads) and
+ * switches the session to a faster page load strategy. Chromium sessions block by URL pattern through CDP
+ * {@code Network.setBlockedURLs} and count blocked and transferred traffic per navigation; Firefox only gets the
+ * equivalent content preferences. Page objects that can cope with a not fully loaded document are marked with
+ * {@code @EagerLoadSafe}; all others wait for the load event themselves.
+ */
+public final class LeanLoadProfile {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeanLoadProfile.class);
+
+    private static final Map<String, List<String>> TYPE_PATTERNS = new HashMap<>();
+
+    static {
+        TYPE_PATTERNS.put("image", Arrays.asList("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.avif*", "*.ico*"));
+        TYPE_PATTERNS.put("media", Arrays.asList("*.mp4*", "*.webm*", "*.ogg*", "*.mp3*", "*.m3u8*"));
+        TYPE_PATTERNS.put("font", Arrays.asList("*.woff*", "*.woff2*", "*.ttf*", "*.otf*", "*.eot*"));
+    }
+
+    private static final Map<WebDriver, NavigationLedger> ledgers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private LeanLoadProfile() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("leanload.enabled",
+                ConfigReader.getProperty("leanload.enabled", "false")));
+    }
+
+    /**
+     * Adds the lean-load capabilities to Chrome or Edge options.
+     */
+    public static void configure(ChromiumOptions<?> options) {
+        if (!isEnabled()) {
+            return;
+        }
+        options.setPageLoadStrategy(pageLoadStrategy());
+        if (blockedTypes().contains("image")) {
+            Map<String, Object> prefs = new HashMap<>();
+            // Applies to every tab, including ones opened before CDP blocking can be attached
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        options.addArguments("--autoplay-policy=user-gesture-required");
+    }
+
+    /**
+     * Adds the lean-load preferences to Firefox options. URL pattern blocking is not available without CDP.
+     */
+    public static void configure(FirefoxOptions options) {
+        if (!isEnabled()) {
+            return;
+        }
+        options.setPageLoadStrategy(pageLoadStrategy());
+        if (blockedTypes().contains("image")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (blockedTypes().contains("media")) {
+            options.addPreference("media.autoplay.default", 5);
+        }
+    }
+
+    /**
+     * Installs URL blocking and traffic accounting on the driver's current window. Call again after switching
+     * to a newly opened tab, since CDP blocking is scoped to a single target.
+     */
+    public static void apply(WebDriver driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        Optional<DevToolsSession> session = DevToolsSession.of(driver);
+        if (!session.isPresent()) {
+            return;
+        }
+        DevToolsSession devTools = session.get();
+        NavigationLedger ledger;
+        synchronized (ledgers) {
+            ledger = ledgers.get(DevToolsSession.unwrap(driver));
+            if (ledger == null) {
+                ledger = new NavigationLedger();
+                ledgers.put(DevToolsSession.unwrap(driver), ledger);
+                devTools.addListener("Network.requestWillBeSent", ledger::onRequest);
+                devTools.addListener("Network.loadingFinished", ledger::onFinished);
+                devTools.addListener("Network.loadingFailed", ledger::onFailed);
+            }
+        }
+        devTools.enable("Network");
+        Map<String, Object> params = new HashMap<>();
+        params.put("urls", blockedUrlPatterns());
+        devTools.send("Network.setBlockedURLs", params);
+    }
+
+    /**
+     * Moves CDP blocking to another window, typically a tab the application just opened.
+     *
+     * @param driver       The driver, already switched to the window.
+     * @param windowHandle The handle of that window.
+     */
+    public static void applyToWindow(WebDriver driver, String windowHandle) {
+        if (!isEnabled()) {
+            return;
+        }
+        DevToolsSession.of(driver).ifPresent(session -> session.attachTo(windowHandle));
+        apply(driver);
+    }
+
+    /**
+     * Logs and resets the traffic counters collected since the previous call for this driver.
+     *
+     * @param driver The driver that performed the navigation.
+     * @param label  What was navigated to (URL or page name).
+     */
+    public static void reportNavigation(WebDriver driver, String label) {
+        if (TabExecutor.isTabBound(driver)) {
+            return; // The ledger counts the traffic of the test's window, not of the task's tab
+        }
+        NavigationLedger ledger = ledgers.get(DevToolsSession.unwrap(driver));
+        if (ledger == null) {
+            return;
+        }
+        String report = ledger.drain();
+        if (report != null) {
+            logger.info("Lean load [{}]: {}", label, report);
+        }
+    }
+
+    static PageLoadStrategy pageLoadStrategy() {
+        return PageLoadStrategy.fromString(ConfigReader.getProperty("leanload.pageLoadStrategy", "eager"));
+    }
+
+    private static List<String> blockedTypes() {
+        return split(ConfigReader.getProperty("leanload.blockedTypes", "image,media,font"));
+    }
+
+    private static List<String> blockedUrlPatterns() {
+        List<String> patterns = new ArrayList<>(split(ConfigReader.getProperty("leanload.blockedUrls", "")));
+        for (String type : blockedTypes()) {
+            patterns.addAll(TYPE_PATTERNS.getOrDefault(type, Collections.emptyList()));
+        }
+        return patterns;
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Per-driver traffic counters, fed from CDP Network events on the DevTools thread.
+     */
+    private static final class NavigationLedger {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder transferredBytes = new LongAdder();
+        private final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+
+        void onRequest(Map<String, Object> event) {
+            requests.increment();
+        }
+
+        void onFinished(Map<String, Object> event) {
+            Object length = event.get("encodedDataLength");
+            if (length instanceof Number) {
+                transferredBytes.add(((Number) length).longValue());
+            }
+        }
+
+        void onFailed(Map<String, Object> event) {
+            if (event.get("blockedReason") != null) {
+                String type = String.valueOf(event.getOrDefault("type", "Other"));
+                blockedByType.computeIfAbsent(type, k -> new LongAdder()).increment();
+            }
+        }
+
+        String drain() {
+            long sent = requests.sumThenReset();
+            long bytes = transferredBytes.sumThenReset();
+            Map<String, Long> blocked = new HashMap<>();
+            blockedByType.forEach((type, count) -> blocked.put(type, count.sumThenReset()));
+            long blockedTotal = blocked.values().stream().mapToLong(Long::longValue).sum();
+            if (sent == 0 && blockedTotal == 0) {
+                return null;
+            }
+            return String.format("requests=%d, blocked=%d %s, transferredKB=%d",
+                    sent, blockedTotal, blocked, bytes / 1024);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.uitests.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks in-flight requests of a Chromium session from CDP Network events, so callers can wait for
+ * "network idle" on the Java side without polling the browser. Also sums the bytes each document received over
+ * the network ({@code encodedDataLength}), including cross-origin responses that Resource Timing reports as 0.
+ */
+public final class NetworkIdleTracker {
+
+    private static final Map<WebDriver, NetworkIdleTracker> trackers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevToolsSession devTools;
+    private final Set<String> inflight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
+    private final Map<String, String> loaderOfRequest = new ConcurrentHashMap<>();
+    // Received bytes per document (CDP loader id), for the few most recent documents
+    private final Map<String, LongAdder> bytesByDocument = Collections.synchronizedMap(new LinkedHashMap<String, LongAdder>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LongAdder> eldest) {
+            return size() > 16;
+        }
+    });
+
+    private NetworkIdleTracker(DevToolsSession devTools) {
+        this.devTools = devTools;
+        devTools.addListener("Network.requestWillBeSent", event -> {
+            String requestId = String.valueOf(event.get("requestId"));
+            inflight.add(requestId);
+            lastActivityNanos.set(System.nanoTime());
+            Object loaderId = event.get("loaderId");
+            if (loaderId != null) {
+                loaderOfRequest.put(requestId, String.valueOf(loaderId));
+                if (requestId.equals(loaderId)) {
+                    // The navigation request of a document: its bytes are complete from here on
+                    bytesByDocument.putIfAbsent(requestId, new LongAdder());
+                }
+            }
+        });
+        devTools.addListener("Network.loadingFinished", event -> done(event));
+        devTools.addListener("Network.loadingFailed", event -> done(event));
+    }
+
+    /**
+     * @return The tracker for the driver, or empty if the browser does not expose CDP.
+     */
+    public static Optional<NetworkIdleTracker> of(WebDriver driver) {
+        Optional<DevToolsSession> devTools = DevToolsSession.of(driver);
+        if (!devTools.isPresent()) {
+            return Optional.empty();
+        }
+        synchronized (trackers) {
+            NetworkIdleTracker tracker = trackers.computeIfAbsent(DevToolsSession.unwrap(driver), d -> new NetworkIdleTracker(devTools.get()));
+            tracker.devTools.enable("Network");
+            return Optional.of(tracker);
+        }
+    }
+
+    /**
+     * Forgets requests of the previous document, e.g. right before a new navigation starts.
+     */
+    public void reset() {
+        inflight.clear();
+        lastActivityNanos.set(System.nanoTime());
+    }
+
+    /**
+     * Blocks until at most {@code maxInflight} requests have been in flight for {@code quietMillis}.
+     *
+     * @return true if the network went idle, false if {@code timeoutMillis} elapsed first.
+     */
+    public boolean awaitIdle(long quietMillis, int maxInflight, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        while (System.nanoTime() < deadline) {
+            if (inflight.size() <= maxInflight && System.nanoTime() - lastActivityNanos.get() >= quietNanos) {
+                return true;
+            }
+            Thread.sleep(25);
+        }
+        return false;
+    }
+
+    public int getInflightCount() {
+        return inflight.size();
+    }
+
+    /**
+     * @param loaderId CDP loader id of a document, e.g. of the main frame from {@code Page.getFrameTree}.
+     * @return Bytes received for the document and the requests it made that have finished, or empty if the
+     * tracker did not see the document's navigation request and could only report part of them.
+     */
+    public OptionalLong transferredBytes(String loaderId) {
+        LongAdder bytes = loaderId == null ? null : bytesByDocument.get(loaderId);
+        return bytes == null ? OptionalLong.empty() : OptionalLong.of(bytes.sum());
+    }
+
+    private void done(Map<String, Object> event) {
+        String requestId = String.valueOf(event.get("requestId"));
+        inflight.remove(requestId);
+        lastActivityNanos.set(System.nanoTime());
+        String loaderId = loaderOfRequest.remove(requestId);
+        LongAdder bytes = loaderId == null ? null : bytesByDocument.get(loaderId);
+        if (bytes != null && event.get("encodedDataLength") instanceof Number) {
+            bytes.add(((Number) event.get("encodedDataLength")).longValue());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record/replay of every response a Chromium session receives, selected by {@code network.mode}:
+ * <ul>
+ *     <li>{@code live} (default): nothing is intercepted.</li>
+ *     <li>{@code record}: responses are captured at the CDP Fetch response stage into the {@link RecordingStore}
+ *     at {@code network.store.dir}.</li>
+ *     <li>{@code replay}: requests are fulfilled from the store after {@code replay.latencyMs}, without touching
+ *     the network. Unrecorded requests fail, or go to the network with {@code replay.onMiss=live}.</li>
+ * </ul>
+ * Interception happens inside the browser, so no proxy or certificate setup is needed. Browsers without CDP
+ * (Firefox) always run live.
+ */
+public final class NetworkReplay {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkReplay.class);
+
+    // The body handed to Fetch.fulfillRequest is already decoded, so these would describe it wrongly
+    private static final Set<String> DROPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-encoding", "content-length", "transfer-encoding"));
+
+    private static final Map<WebDriver, Boolean> installed = Collections.synchronizedMap(new WeakHashMap<>());
+    // The window whose requests are intercepted, per driver; there is one DevTools session and so one such window
+    private static final Map<WebDriver, String> interceptedWindow = Collections.synchronizedMap(new WeakHashMap<>());
+    // CDP event callbacks must not block on further CDP commands, so requests are handled here
+    private static final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "network-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final LongAdder recorded = new LongAdder();
+    private static final LongAdder replayed = new LongAdder();
+    private static final LongAdder missed = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(RecordingStore::flushAll, "network-recording-flush"));
+    }
+
+    private enum Mode { LIVE, RECORD, REPLAY }
+
+    private NetworkReplay() {
+    }
+
+    public static boolean isEnabled() {
+        return mode() != Mode.LIVE;
+    }
+
+    /**
+     * Starts recording or replaying on the driver's current window. Does nothing in live mode.
+     */
+    public static void apply(WebDriver driver) {
+        Mode mode = mode();
+        if (mode == Mode.LIVE) {
+            return;
+        }
+        Optional<DevToolsSession> session = DevToolsSession.of(driver);
+        if (!session.isPresent()) {
+            logger.warn("network.mode={} needs a Chromium-based browser; this session runs live", mode.name().toLowerCase(Locale.ROOT));
+            return;
+        }
+        DevToolsSession devTools = session.get();
+        RecordingStore store = RecordingStore.at(Paths.get(ConfigReader.getProperty("network.store.dir", "recordings/default")));
+        synchronized (installed) {
+            if (installed.putIfAbsent(DevToolsSession.unwrap(driver), Boolean.TRUE) == null) {
+                devTools.addListener("Fetch.requestPaused", event -> {
+                    long latency = mode == Mode.REPLAY ? ConfigReader.getIntProperty("replay.latencyMs", 0) : 0;
+                    executor.schedule(() -> handle(mode, devTools, store, event), latency, TimeUnit.MILLISECONDS);
+                });
+            }
+        }
+        Map<String, Object> pattern = new HashMap<>();
+        pattern.put("urlPattern", "*");
+        pattern.put("requestStage", mode == Mode.RECORD ? "Response" : "Request");
+        devTools.send("Fetch.enable", Collections.singletonMap("patterns", Collections.singletonList(pattern)));
+        interceptedWindow.put(DevToolsSession.unwrap(driver), driver.getWindowHandle());
+        if (mode == Mode.REPLAY && store.size() == 0) {
+            logger.warn("Replaying from an empty recording store; record a run with network.mode=record first");
+        }
+    }
+
+    /**
+     * Interception is per CDP target, so a newly opened tab has to be set up again once switched to. It moves
+     * with the DevTools session: the window switched away from is released and any request it issues from then
+     * on goes to the network, which is logged as a warning while that window stays open.
+     */
+    public static void applyToWindow(WebDriver driver, String windowHandle) {
+        if (!isEnabled()) {
+            return;
+        }
+        String previous = interceptedWindow.get(DevToolsSession.unwrap(driver));
+        DevToolsSession.of(driver).ifPresent(session -> session.attachTo(windowHandle));
+        apply(driver);
+        if (previous != null && !previous.equals(windowHandle) && driver.getWindowHandles().contains(previous)) {
+            logger.warn("network.mode={} now intercepts window {}; window {} is no longer intercepted and any request"
+                    + " it issues goes to the network", mode().name().toLowerCase(Locale.ROOT), windowHandle, previous);
+        }
+    }
+
+    /**
+     * Writes the responses recorded so far to disk. Also runs at JVM shutdown.
+     */
+    public static void flush() {
+        RecordingStore.flushAll();
+    }
+
+    public static String summary() {
+        return String.format("mode=%s, recorded=%d, replayed=%d, missed=%d",
+                mode().name().toLowerCase(Locale.ROOT), recorded.sum(), replayed.sum(), missed.sum());
+    }
+
+    /**
+     * Records or replays one paused request. Whatever goes wrong on the way, the request is always continued,
+     * fulfilled or failed; a request left paused would hang the page.
+     */
+    @SuppressWarnings("unchecked")
+    private static void handle(Mode mode, DevToolsSession devTools, RecordingStore store, Map<String, Object> event) {
+        String requestId = String.valueOf(event.get("requestId"));
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        String method = String.valueOf(request.get("method"));
+        String url = String.valueOf(request.get("url"));
+        boolean released = false;
+        try {
+            if (mode == Mode.RECORD) {
+                record(devTools, store, event, method, url);
+            } else {
+                released = replay(devTools, store, requestId, method, url);
+            }
+        } catch (WebDriverException e) {
+            // Typically the page navigated away and the request is gone, or the response has no body to read
+            logger.debug("Could not handle intercepted {} {}: {}", method, url, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Could not {} {} {}: {}", mode == Mode.RECORD ? "record" : "replay", method, url, e.toString());
+        } finally {
+            if (!released) {
+                release(mode, devTools, requestId, method, url);
+            }
+        }
+    }
+
+    /**
+     * Lets a recorded response through to the page, or fails a request that could not be replayed.
+     */
+    private static void release(Mode mode, DevToolsSession devTools, String requestId, String method, String url) {
+        try {
+            if (mode == Mode.RECORD) {
+                devTools.send("Fetch.continueRequest", Collections.singletonMap("requestId", requestId));
+            } else {
+                Map<String, Object> params = new HashMap<>();
+                params.put("requestId", requestId);
+                params.put("errorReason", "Failed");
+                devTools.send("Fetch.failRequest", params);
+            }
+        } catch (WebDriverException e) {
+            logger.debug("Could not release intercepted {} {}: {}", method, url, e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void record(DevToolsSession devTools, RecordingStore store, Map<String, Object> event, String method, String url) {
+        if (event.get("responseStatusCode") == null) {
+            return; // The request failed before a response arrived; nothing to record
+        }
+        int status = ((Number) event.get("responseStatusCode")).intValue();
+        List<Map<String, Object>> headers = new ArrayList<>();
+        for (Map<String, Object> header : (List<Map<String, Object>>) event.getOrDefault("responseHeaders", Collections.emptyList())) {
+            if (!DROPPED_HEADERS.contains(String.valueOf(header.get("name")).toLowerCase(Locale.ROOT))) {
+                headers.add(header);
+            }
+        }
+        byte[] body = new byte[0];
+        if (status < 300 || status >= 400) {
+            Map<String, Object> result = devTools.send("Fetch.getResponseBody", Collections.singletonMap("requestId", event.get("requestId")));
+            String raw = String.valueOf(result.get("body"));
+            body = Boolean.TRUE.equals(result.get("base64Encoded"))
+                    ? Base64.getDecoder().decode(raw)
+                    : raw.getBytes(StandardCharsets.UTF_8);
+        }
+        store.put(method, url, status, headers, body);
+        recorded.increment();
+    }
+
+    /**
+     * @return true once the request was fulfilled, continued or failed.
+     */
+    private static boolean replay(DevToolsSession devTools, RecordingStore store, String requestId, String method, String url) {
+        Map<String, Object> entry = store.find(method, url);
+        if (entry != null) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("requestId", requestId);
+            params.put("responseCode", entry.get("status"));
+            params.put("responseHeaders", entry.get("headers"));
+            params.put("body", store.base64Body(entry));
+            devTools.send("Fetch.fulfillRequest", params);
+            replayed.increment();
+            return true;
+        }
+        missed.increment();
+        if ("live".equalsIgnoreCase(ConfigReader.getProperty("replay.onMiss", "fail"))) {
+            logger.info("No recording for {} {}, fetching it live", method, url);
+            devTools.send("Fetch.continueRequest", Collections.singletonMap("requestId", requestId));
+        } else {
+            logger.warn("No recording for {} {}, failing the request", method, url);
+            Map<String, Object> params = new HashMap<>();
+            params.put("requestId", requestId);
+            params.put("errorReason", "InternetDisconnected");
+            devTools.send("Fetch.failRequest", params);
+        }
+        return true;
+    }
+
+    private static Mode mode() {
+        String mode = System.getProperty("network.mode", ConfigReader.getProperty("network.mode", "live"));
+        try {
+            return Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported network.mode: " + mode + ". Supported modes are: live, record, replay.");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.uitests.driver;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk store of recorded responses: {@code index.json} maps "METHOD url" to status, headers and the SHA-256
+ * of the body, and each distinct body is stored once as {@code bodies/<sha256>.gz}. Several JVMs may record
+ * into the same directory; the index is merged under a file lock on {@link #flush()}.
+ */
+final class RecordingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordingStore.class);
+    private static final Map<Path, RecordingStore> stores = new ConcurrentHashMap<>();
+
+    private final Path dir;
+    private final Map<String, Map<String, Object>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> unflushed = new ConcurrentHashMap<>();
+    // Replay serves the same assets again and again, so decoded bodies are kept in memory
+    private final Map<String, String> base64Bodies = new ConcurrentHashMap<>();
+
+    private RecordingStore(Path dir) {
+        this.dir = dir;
+        Path index = dir.resolve("index.json");
+        if (Files.exists(index)) {
+            try {
+                entries.putAll(parse(new String(Files.readAllBytes(index), StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read recording index " + index, e);
+            }
+        }
+        logger.info("Recording store {} holds {} responses", dir, entries.size());
+    }
+
+    static RecordingStore at(Path dir) {
+        return stores.computeIfAbsent(dir.toAbsolutePath().normalize(), RecordingStore::new);
+    }
+
+    static void flushAll() {
+        stores.values().forEach(RecordingStore::flush);
+    }
+
+    static String key(String method, String url) {
+        return method + " " + url;
+    }
+
+    Map<String, Object> find(String method, String url) {
+        return entries.get(key(method, url));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The stored body of the entry, base64 encoded as CDP expects it.
+     */
+    String base64Body(Map<String, Object> entry) {
+        String hash = (String) entry.get("body");
+        return base64Bodies.computeIfAbsent(hash, h -> {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(bodyFile(h)))) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                in.transferTo(body);
+                return Base64.getEncoder().encodeToString(body.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read recorded body " + h, e);
+            }
+        });
+    }
+
+    void put(String method, String url, int status, List<Map<String, Object>> headers, byte[] body) {
+        String hash = sha256(body);
+        writeBody(hash, body);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("status", status);
+        entry.put("headers", headers);
+        entry.put("body", hash);
+        entry.put("size", body.length);
+        entries.put(key(method, url), entry);
+        unflushed.put(key(method, url), entry);
+    }
+
+    /**
+     * Merges the responses recorded by this JVM into {@code index.json}.
+     */
+    synchronized void flush() {
+        if (unflushed.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(dir.resolve("index.lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    mergeIndex();
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write recording index in {}", dir, e);
+        }
+    }
+
+    // Called with the index lock held
+    private void mergeIndex() throws IOException {
+        Path index = dir.resolve("index.json");
+        Map<String, Map<String, Object>> merged = new TreeMap<>();
+        if (Files.exists(index)) {
+            merged.putAll(parse(new String(Files.readAllBytes(index), StandardCharsets.UTF_8)));
+        }
+        merged.putAll(unflushed);
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("version", 1);
+        document.put("entries", merged);
+        Path temp = dir.resolve("index.json.tmp");
+        Files.write(temp, new Json().toJson(document).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Recorded {} responses into {} ({} total)", unflushed.size(), dir, merged.size());
+        unflushed.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> parse(String json) {
+        Map<String, Object> document = new Json().toType(json, Json.MAP_TYPE);
+        Map<String, Map<String, Object>> parsed = new HashMap<>();
+        ((Map<String, Object>) document.get("entries")).forEach((k, v) -> parsed.put(k, (Map<String, Object>) v));
+        return parsed;
+    }
+
+    private void writeBody(String hash, byte[] body) {
+        Path file = bodyFile(hash);
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(body);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content written concurrently by another thread or JVM
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store recorded body " + hash, e);
+        }
+    }
+
+    private Path bodyFile(String hash) {
+        return dir.resolve("bodies").resolve(hash + ".gz");
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs page-object tasks concurrently in several tabs of the current test's browser session, so read-only
+ * verifications on different pages share one browser instead of needing one each.
+ * <p>
+ * Every task runs on its own worker thread with a tab-bound driver as its {@link DriverManager#getDriver()}, so
+ * page objects built inside the task live in that tab. The tab-bound driver (and every element, navigation or
+ * option object obtained from it) takes the session lock for each command and switches the session to its tab
+ * first if needed. Commands of different tabs therefore interleave one at a time, while page loads, Java-side
+ * waits and polling of the tabs overlap.
+ * <p>
+ * Limits: tasks must not switch windows or frames themselves, and the test thread should only wait on the
+ * futures while tasks run, since its own driver does not take the session lock. A long in-browser wait (an async script)
+ * holds the session for its duration.
+ * <p>
+ * The session has a single DevTools connection, attached to the test's window. A tab-bound driver therefore has no
+ * {@link DevToolsSession}: page objects in a task measure performance from the Navigation and Resource Timing
+ * APIs only, without CDP metrics, main-document bytes or lean load reports, and read cookies through WebDriver.
+ * Lean load blocking, record/replay interception and trace network events stay on the test's window and do not
+ * cover the extra tabs.
+ *
+ * <pre>
+ * try (TabExecutor tabs = TabExecutor.open(2)) {
+ *     Future&lt;String&gt; cost = tabs.submit(cdroUrl, () -&gt; new CloudBeesCDROPage().getCostSavingsValue());
+ *     Future&lt;Boolean&gt; docs = tabs.submit(docsUrl, () -&gt; new DocumentationPage().isDocumentationPageLoaded());
+ *     ...
+ * }
+ * </pre>
+ */
+public final class TabExecutor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TabExecutor.class);
+    private static final AtomicInteger executorCount = new AtomicInteger();
+
+    // Set on the old document right before a tab navigates, so the new document is recognised by its absence
+    private static final String NAVIGATE_SCRIPT = "window.__tabExecutorPending = true; window.location.href = arguments[0];";
+    private static final String LOADED_SCRIPT = "return !window.__tabExecutorPending && document.readyState !== 'loading';";
+
+    private final WebDriver session;
+    private final String originalWindow;
+    private final List<Tab> tabs = new ArrayList<>();
+    private final BlockingQueue<Tab> freeTabs;
+    private final ExecutorService workers;
+    private final ReentrantLock sessionLock = new ReentrantLock(true);
+    private final Duration loadTimeout = Duration.ofSeconds(ConfigReader.getIntProperty("wait", 30));
+    private String focusedWindow;
+    private long switches;
+
+    private TabExecutor(WebDriver session, int tabCount) {
+        this.session = session;
+        this.originalWindow = session.getWindowHandle();
+        this.focusedWindow = originalWindow;
+        this.freeTabs = new ArrayBlockingQueue<>(tabCount);
+        // The test's own window is the first tab; the others are opened next to it
+        tabs.add(new Tab(originalWindow, false));
+        for (int i = 1; i < tabCount; i++) {
+            String handle = session.switchTo().newWindow(WindowType.TAB).getWindowHandle();
+            tabs.add(new Tab(handle, true));
+        }
+        session.switchTo().window(originalWindow);
+        freeTabs.addAll(tabs);
+        int id = executorCount.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(tabCount, runnable -> {
+            Thread thread = new Thread(runnable, "tab-" + id + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens {@code tabCount - 1} extra tabs in the current test's session; the current window is the first tab.
+     */
+    public static TabExecutor open(int tabCount) {
+        if (tabCount < 1) {
+            throw new IllegalArgumentException("tabCount must be at least 1, was " + tabCount);
+        }
+        return new TabExecutor(DriverManager.getDriver(), tabCount);
+    }
+
+    /**
+     * Runs the task in the next free tab, as it is.
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return submit(null, task);
+    }
+
+    /**
+     * Loads {@code url} in the next free tab, then runs the task there. The load itself does not hold the
+     * session, so several tabs load at the same time.
+     *
+     * @param url The page to open first, or null to use the tab as it is.
+     */
+    public <T> Future<T> submit(String url, Callable<T> task) {
+        return workers.submit(() -> {
+            Tab tab = freeTabs.take();
+            try {
+                if (url != null) {
+                    tab.load(url);
+                }
+                return DriverManager.callWithDriver(tab.driver, task);
+            } finally {
+                freeTabs.add(tab);
+            }
+        });
+    }
+
+    /**
+     * @return How often the session had to switch between tabs so far.
+     */
+    public long getSwitchCount() {
+        sessionLock.lock();
+        try {
+            return switches;
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for running tasks, closes the extra tabs and leaves the session on the original window.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(loadTimeout.toMillis() * 2, TimeUnit.MILLISECONDS)) {
+                logger.warn("Tab tasks still running at close; interrupting them");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        sessionLock.lock();
+        try {
+            for (Tab tab : tabs) {
+                if (tab.opened) {
+                    try {
+                        session.switchTo().window(tab.handle).close();
+                    } catch (WebDriverException e) {
+                        logger.warn("Could not close tab {}: {}", tab.handle, e.getMessage());
+                    }
+                }
+            }
+            session.switchTo().window(originalWindow);
+            focusedWindow = originalWindow;
+            logger.info("Tab executor closed after {} tab switches", switches);
+        } finally {
+            sessionLock.unlock();
+        }
+    }
+
+    private void focus(String handle) {
+        if (!handle.equals(focusedWindow)) {
+            session.switchTo().window(handle);
+            focusedWindow = handle;
+            switches++;
+        }
+    }
+
+    private final class Tab {
+        private final String handle;
+        private final boolean opened;
+        private final WebDriver driver;
+
+        private Tab(String handle, boolean opened) {
+            this.handle = handle;
+            this.opened = opened;
+            this.driver = (WebDriver) bind(session);
+        }
+
+        private void load(String url) {
+            ((JavascriptExecutor) driver).executeScript(NAVIGATE_SCRIPT, url);
+            new WebDriverWait(driver, loadTimeout)
+                    .until(d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(LOADED_SCRIPT)));
+        }
+
+        /**
+         * Wraps a driver-side object so that its commands run in this tab under the session lock.
+         */
+        private Object bind(Object target) {
+            Set<Class<?>> interfaces = new LinkedHashSet<>();
+            collectInterfaces(target.getClass(), interfaces);
+            interfaces.add(target instanceof WebElement ? WrapsElement.class : WrapsDriver.class);
+            return Proxy.newProxyInstance(TabExecutor.class.getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                    new TabBound(this, target));
+        }
+    }
+
+    private final class TabBound implements InvocationHandler {
+        private final Tab tab;
+        private final Object target;
+
+        private TabBound(Tab tab, Object target) {
+            this.tab = tab;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getWrappedElement":
+                    // Lets Selenium serialise bound elements as script and action arguments
+                    return target;
+                case "getWrappedDriver":
+                    // Unwrapping a bound driver leads to the real session; an element's driver stays bound
+                    return target instanceof WebDriver ? target : tab.driver;
+                case "equals":
+                    return target.equals(unwrap(args[0]));
+                case "hashCode":
+                    return target.hashCode();
+                case "toString":
+                    return "tab " + tab.handle + ": " + target;
+                default:
+                    break;
+            }
+            sessionLock.lock();
+            try {
+                focus(tab.handle);
+                return wrap(method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                sessionLock.unlock();
+            }
+        }
+
+        private Object wrap(Object result) {
+            if (result == null) {
+                return null;
+            }
+            if (result instanceof WebDriver) {
+                return tab.driver;
+            }
+            if (result instanceof List) {
+                List<Object> wrapped = new ArrayList<>();
+                for (Object item : (List<?>) result) {
+                    wrapped.add(item instanceof WebElement ? tab.bind(item) : item);
+                }
+                return wrapped;
+            }
+            // Elements and the navigation, options, window and target locator views all issue commands
+            if (result instanceof WebElement || isSeleniumView(result.getClass())) {
+                return tab.bind(result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return Whether the driver is the tab-bound driver of a task, rather than a session of its own.
+     */
+    static boolean isTabBound(WebDriver driver) {
+        return driver != null && Proxy.isProxyClass(driver.getClass()) && Proxy.getInvocationHandler(driver) instanceof TabBound;
+    }
+
+    private static boolean isSeleniumView(Class<?> type) {
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (candidate.getEnclosingClass() == WebDriver.class) {
+                return true;
+            }
+        }
+        return type.getSuperclass() != null && isSeleniumView(type.getSuperclass());
+    }
+
+    private static Object unwrap(Object value) {
+        if (value != null && Proxy.isProxyClass(value.getClass()) && Proxy.getInvocationHandler(value) instanceof TabBound) {
+            return ((TabBound) Proxy.getInvocationHandler(value)).target;
+        }
+        return value;
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> candidate : current.getInterfaces()) {
+                if (Modifier.isPublic(candidate.getModifiers()) && interfaces.add(candidate)) {
+                    collectInterfaces(candidate, interfaces);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.uitests.driver;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records one timeline per test in Chrome Trace Event format, which Perfetto (ui.perfetto.dev) and
+ * chrome://tracing open directly. Enabled with {@code trace.enabled=true}.
+ * <p>
+ * The test thread track holds nested spans for {@code @Step} methods, waits and sleeps (reported by the trace
+ * aspect) and individual WebDriver commands (reported by {@link #commandListener()}). Separate tracks hold the
+ * browser's network requests and page lifecycle events, taken from CDP. All events are stamped with the JVM
+ * clock when they are observed, so browser events appear with the latency of the DevTools connection.
+ */
+public final class TraceRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceRecorder.class);
+
+    private static final int PID = 1;
+    private static final int TEST_TID = 1;
+    private static final int NETWORK_TID = 2;
+    private static final int PAGE_TID = 3;
+
+    private static final ThreadLocal<Trace> current = new ThreadLocal<>();
+    private static final Map<WebDriver, BrowserTap> taps = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final WebDriverListener COMMAND_LISTENER = new CommandSpans();
+
+    private TraceRecorder() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("trace.enabled", false);
+    }
+
+    /**
+     * @return True if a trace is being recorded on the calling thread.
+     */
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Starts the trace of a test on the calling thread and subscribes it to the browser's network and page events.
+     */
+    public static void start(String testName, WebDriver driver) {
+        Trace trace = new Trace(testName);
+        current.set(trace);
+        BrowserTap tap = tap(driver);
+        if (tap != null) {
+            DevToolsSession.of(driver).ifPresent(TraceRecorder::enableDomains);
+            tap.trace = trace;
+        }
+    }
+
+    /**
+     * Re-enables the CDP domains the trace listens to after the session was attached to another window.
+     */
+    public static void applyToWindow(WebDriver driver, String windowHandle) {
+        if (isActive()) {
+            DevToolsSession.of(driver).ifPresent(devTools -> {
+                devTools.attachTo(windowHandle);
+                enableDomains(devTools);
+            });
+        }
+    }
+
+    /**
+     * Ends the trace of the calling thread and writes it to {@code trace.dir} (default target/traces).
+     *
+     * @return The trace JSON, or null if no trace was started on this thread.
+     */
+    public static String stop(WebDriver driver) {
+        Trace trace = current.get();
+        current.remove();
+        if (trace == null) {
+            return null;
+        }
+        BrowserTap tap = driver == null ? null : taps.get(DevToolsSession.unwrap(driver));
+        if (tap != null) {
+            tap.trace = null;
+        }
+        String json = trace.toJson();
+        Path file = Paths.get(ConfigReader.getProperty("trace.dir", "target/traces"),
+                trace.testName.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+            logger.info("Trace of {} written to {}", trace.testName, file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write trace to {}: {}", file, e.getMessage());
+        }
+        return json;
+    }
+
+    /**
+     * Records a completed span on the calling thread's test track.
+     *
+     * @param category   Trace category, e.g. "step", "wait" or "sleep".
+     * @param startNanos {@link System#nanoTime()} at the start of the span.
+     */
+    public static void span(String name, String category, long startNanos, long endNanos) {
+        Trace trace = current.get();
+        if (trace != null) {
+            trace.complete(name, category, TEST_TID, startNanos, endNanos, null);
+        }
+    }
+
+    /**
+     * @return The listener recording WebDriver command spans; DriverManager decorates drivers with it.
+     */
+    public static WebDriverListener commandListener() {
+        return COMMAND_LISTENER;
+    }
+
+    private static BrowserTap tap(WebDriver driver) {
+        WebDriver raw = DevToolsSession.unwrap(driver);
+        synchronized (taps) {
+            BrowserTap existing = taps.get(raw);
+            if (existing != null || taps.containsKey(raw)) {
+                return existing;
+            }
+            BrowserTap tap = DevToolsSession.of(driver).map(BrowserTap::new).orElse(null);
+            taps.put(raw, tap);
+            return tap;
+        }
+    }
+
+    private static void enableDomains(DevToolsSession devTools) {
+        try {
+            devTools.enable("Network");
+            devTools.enable("Page");
+        } catch (WebDriverException e) {
+            logger.warn("Could not enable CDP events for the trace: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Forwards CDP events of one browser session to the trace of the test currently using it. Listeners stay
+     * registered for the lifetime of the session, which may serve several tests when pooled.
+     */
+    private static final class BrowserTap {
+        private volatile Trace trace;
+
+        private BrowserTap(DevToolsSession devTools) {
+            devTools.addListener("Network.requestWillBeSent", event -> {
+                Trace t = trace;
+                if (t != null) {
+                    Map<?, ?> request = (Map<?, ?>) event.get("request");
+                    Map<String, Object> args = new LinkedHashMap<>();
+                    args.put("url", request.get("url"));
+                    args.put("type", event.get("type"));
+                    t.async("b", request.get("method") + " " + shorten(String.valueOf(request.get("url"))),
+                            String.valueOf(event.get("requestId")), args);
+                }
+            });
+            devTools.addListener("Network.loadingFinished", event -> {
+                Trace t = trace;
+                if (t != null) {
+                    t.async("e", null, String.valueOf(event.get("requestId")),
+                            Collections.singletonMap("encodedDataLength", event.get("encodedDataLength")));
+                }
+            });
+            devTools.addListener("Network.loadingFailed", event -> {
+                Trace t = trace;
+                if (t != null) {
+                    t.async("e", null, String.valueOf(event.get("requestId")),
+                            Collections.singletonMap("error", event.get("errorText")));
+                }
+            });
+            devTools.addListener("Page.frameNavigated", event -> {
+                Trace t = trace;
+                Map<?, ?> frame = (Map<?, ?>) event.get("frame");
+                if (t != null && frame.get("parentId") == null) {
+                    t.instant("navigated " + shorten(String.valueOf(frame.get("url"))), Collections.singletonMap("url", frame.get("url")));
+                }
+            });
+            devTools.addListener("Page.domContentEventFired", event -> {
+                Trace t = trace;
+                if (t != null) {
+                    t.instant("DOMContentLoaded", null);
+                }
+            });
+            devTools.addListener("Page.loadEventFired", event -> {
+                Trace t = trace;
+                if (t != null) {
+                    t.instant("load", null);
+                }
+            });
+        }
+
+        private static String shorten(String url) {
+            int query = url.indexOf('?');
+            String path = query < 0 ? url : url.substring(0, query);
+            return path.length() > 100 ? path.substring(0, 97) + "..." : path;
+        }
+    }
+
+    /**
+     * Turns WebDriver commands into spans. The start times of calls in progress are kept per thread, since
+     * element and navigation calls of the same thread nest.
+     */
+    private static final class CommandSpans implements WebDriverListener {
+        private static final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            if (isActive() && !CommandMetrics.LOCAL_CALLS.contains(method.getName())) {
+                starts.get().push(System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            complete(method, args, null);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            complete(method, args, e.getTargetException().getClass().getSimpleName());
+        }
+
+        private static void complete(Method method, Object[] args, String error) {
+            Trace trace = current.get();
+            Deque<Long> pending = starts.get();
+            if (trace == null || pending.isEmpty() || CommandMetrics.LOCAL_CALLS.contains(method.getName())) {
+                return;
+            }
+            Map<String, Object> details = new LinkedHashMap<>();
+            if (args != null && args.length > 0 && args[0] instanceof By) {
+                details.put("locator", args[0].toString());
+            }
+            if (error != null) {
+                details.put("error", error);
+            }
+            trace.complete(method.getName(), "webdriver", TEST_TID, pending.pop(), System.nanoTime(), details);
+        }
+    }
+
+    private static final class Trace {
+        private final String testName;
+        private final long originNanos = System.nanoTime();
+        private final Queue<Map<String, Object>> events = new ConcurrentLinkedQueue<>();
+
+        private Trace(String testName) {
+            this.testName = testName;
+        }
+
+        private void complete(String name, String category, int tid, long startNanos, long endNanos, Map<String, Object> args) {
+            Map<String, Object> event = event("X", name, category, tid, startNanos);
+            event.put("dur", TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos));
+            if (args != null && !args.isEmpty()) {
+                event.put("args", args);
+            }
+            events.add(event);
+        }
+
+        private void async(String phase, String name, String id, Map<String, Object> args) {
+            // Async begin/end pairs are matched by category and id, so the end event needs no name of its own
+            Map<String, Object> event = event(phase, name == null ? "request" : name, "network", NETWORK_TID, System.nanoTime());
+            event.put("id", id);
+            if (args != null) {
+                event.put("args", args);
+            }
+            events.add(event);
+        }
+
+        private void instant(String name, Map<String, Object> args) {
+            Map<String, Object> event = event("i", name, "page", PAGE_TID, System.nanoTime());
+            event.put("s", "g");
+            if (args != null) {
+                event.put("args", args);
+            }
+            events.add(event);
+        }
+
+        private Map<String, Object> event(String phase, String name, String category, int tid, long nanos) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("ph", phase);
+            event.put("name", name);
+            event.put("cat", category);
+            event.put("pid", PID);
+            event.put("tid", tid);
+            event.put("ts", TimeUnit.NANOSECONDS.toMicros(nanos - originNanos));
+            return event;
+        }
+
+        private String toJson() {
+            List<Map<String, Object>> all = new ArrayList<>();
+            all.add(metadata("process_name", 0, testName));
+            all.add(metadata("thread_name", TEST_TID, "Test thread"));
+            all.add(metadata("thread_name", NETWORK_TID, "Browser network"));
+            all.add(metadata("thread_name", PAGE_TID, "Page lifecycle"));
+            all.addAll(events);
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put("traceEvents", all);
+            document.put("displayTimeUnit", "ms");
+            return new Json().toJson(document);
+        }
+
+        private static Map<String, Object> metadata(String kind, int tid, String name) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("ph", "M");
+            event.put("name", kind);
+            event.put("pid", PID);
+            event.put("tid", tid);
+            event.put("args", Collections.singletonMap("name", name));
+            return event;
+        }
+    }
+}
@@ -1,46 +1,139 @@
 package com.uitests.pages;
 import com.uitests.driver.DriverManager;
+import com.uitests.driver.LeanLoadProfile;
+import com.uitests.driver.NetworkReplay;
+import com.uitests.driver.TraceRecorder;
 import com.uitests.utils.ConfigReader;
 import io.qameta.allure.Step;
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.util.Objects;
 import java.util.Set; 
+import java.util.concurrent.TimeUnit;
 public abstract class BasePage {
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected JavascriptExecutor js;
+    private final CachingElementLocatorFactory locatorFactory;
     private static final Logger logger = LoggerFactory.getLogger(BasePage.class);
+    // Quiet period after which the DOM is considered settled by the in-browser waits
+    private static final long SETTLE_QUIET_MILLIS = 150;
+    private static final Duration DEFAULT_WAIT = Duration.ofSeconds(ConfigReader.getIntProperty("wait", 30));
 
 
     public BasePage() {
         this.driver = DriverManager.getDriver();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(Long.parseLong((Objects.requireNonNull(ConfigReader.getProperty("wait")))))); // Increased default wait
+        this.wait = new WebDriverWait(driver, DEFAULT_WAIT);
         this.js = (JavascriptExecutor) driver;
-        PageFactory.initElements(driver, this);
+        // @FindBy elements are resolved once per page instance and re-resolved only when stale or invalidated
+        this.locatorFactory = new CachingElementLocatorFactory(driver);
+        // Field locators are read from the class once; see PageMetadata
+        PageMetadata.of(getClass()).wire(this, locatorFactory);
+        prepareForUse();
+    }
+
+    /**
+     * Per-document work done when the page object is constructed, and again when {@link PageRegistry} hands out
+     * an existing instance.
+     */
+    void prepareForUse() {
+        awaitFullLoadIfRequired();
+        LeanLoadProfile.reportNavigation(driver, getClass().getSimpleName());
+        recordPerformance();
+        if (LocatorProfiler.isEnabled()) {
+            LocatorProfiler.profile(driver, getClass());
+        }
+    }
+
+    /**
+     * Measures the current document for this page class unless a page object has measured it already, and checks
+     * the class's {@link PerformanceBudget}. Page objects call it again after navigating within themselves.
+     */
+    protected void recordPerformance() {
+        if (PagePerformance.isEnabled()) {
+            PagePerformance.record(driver, getClass());
+        }
+    }
+
+    /**
+     * Drops every cached {@code @FindBy} element of this page, e.g. after the document was replaced by a navigation.
+     */
+    protected void invalidateElementCache() {
+        locatorFactory.invalidateAll();
+    }
+
+    /**
+     * Captures URL, cookies, localStorage and sessionStorage of this session; see {@link SessionState}.
+     */
+    public SessionState captureSessionState() {
+        return SessionState.capture(driver);
+    }
+
+    /**
+     * Brings this session to a previously captured state, ending on its URL.
+     */
+    public void restoreSessionState(SessionState state) {
+        state.restoreInto(driver);
+        invalidateElementCache();
+    }
+
+    /**
+     * Starts this session at the state reached by {@code setup}. The setup runs once per run and key; every
+     * later caller, in any thread, gets the captured state restored instead of repeating the navigation.
+     *
+     * @param key   Name of the setup, e.g. "cdro-page".
+     * @param setup The navigation that reaches the state, run in this session the first time.
+     */
+    public void startFromSessionState(String key, Runnable setup) {
+        SessionState.Cached cached = SessionState.cached(key, driver, setup);
+        if (!cached.capturedHere) {
+            logger.info("Restoring session state '{}' at {}", key, cached.state.getUrl());
+            cached.state.restoreInto(driver);
+        }
+        invalidateElementCache();
+    }
+
+    /**
+     * Starts a batched read of page state; see {@link PageSnapshot}.
+     *
+     * @return A builder taking {@code @FindBy} field names or explicit locators.
+     */
+    protected PageSnapshot.Builder snapshot() {
+        return new PageSnapshot.Builder(driver, this::locatorOf);
+    }
+
+    /**
+     * Returns the locator declared by a {@code @FindBy} field of this page object.
+     *
+     * @param fieldName The name of a field declared in this class or one of its superclasses.
+     * @throws IllegalArgumentException if there is no such field.
+     */
+    protected By locatorOf(String fieldName) {
+        By by = PageMetadata.of(getClass()).locatorOf(fieldName);
+        if (by == null) {
+            throw new IllegalArgumentException("No @FindBy field '" + fieldName + "' in " + getClass().getSimpleName());
+        }
+        return by;
+    }
+
+    /**
+     * Under the lean load profile the session returns control at DOMContentLoaded. Page objects not marked
+     * {@link EagerLoadSafe} still get a fully loaded document before they are used.
+     */
+    protected void awaitFullLoadIfRequired() {
+        if (LeanLoadProfile.isEnabled() && !getClass().isAnnotationPresent(EagerLoadSafe.class)) {
+            wait.until(DomConditions.documentReady());
+        }
     }
 
     @Step("Accepting cookie consent banner if present")
     public void acceptCookiesIfPresent() {
         try {
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(5));
-            WebElement acceptButton = shortWait.until(ExpectedConditions.elementToBeClickable(
-                    By.xpath("//button[contains(translate(normalize-space(), 'ACCEPTCOOKIES', 'acceptcookies'), 'accept cookies') or contains(translate(normalize-space(), 'ACCEPT', 'accept'), 'accept') or contains(translate(normalize-space(), 'AGREE', 'agree'), 'agree') or @id='onetrust-accept-btn-handler']")
-            ));
-            if (acceptButton.isDisplayed()) {
-                logger.info("Cookie consent banner found. Clicking accept...");
-                jsClick(acceptButton);
-                wait.until(ExpectedConditions.invisibilityOf(acceptButton));
-                logger.info("Cookie consent accepted.");
-            }
-        } catch (TimeoutException e) {
-            logger.info("Cookie consent banner not found or already handled within 5 seconds.");
+            // Returns at once for origins already handled in this session; see CookieConsent
+            CookieConsent.acceptIfPresent(driver);
         } catch (Exception e) {
             logger.warn("An issue occurred while trying to accept cookies: " + e.getMessage());
         }
@@ -48,8 +141,8 @@ public abstract class BasePage {
 
     @Step("Scrolling element into view: {elementDescription}")
     protected void scrollIntoView(WebElement element, String elementDescription) {
-        js.executeScript("arguments[0].scrollIntoView({block: 'center', inline: 'nearest'});", element);
-        waitFor(1);
+        // Scrolls and waits for scrolling and any lazy rendering to stop in a single round trip
+        settle("scrollIntoView", element, "scroll", 1);
     }
 
     @Step("Scrolling element into view and clicking: {elementDescription}")
@@ -60,7 +153,7 @@ public abstract class BasePage {
         while (attempts < maxAttempts) {
             try {
                 scrollIntoView(element, elementDescription + " (Attempt " + (attempts + 1) + ")");
-                wait.until(ExpectedConditions.elementToBeClickable(element)).click();
+                wait.until(DomConditions.elementToBeClickable(element)).click();
                 logger.info("Successfully clicked '{}' on attempt {}", elementDescription, attempts + 1);
                 return; // Success, exit retry loop
             } catch (StaleElementReferenceException | ElementClickInterceptedException | TimeoutException e) {
@@ -70,7 +163,10 @@ public abstract class BasePage {
                     logger.error("Failed to click '{}' after {} attempts.", elementDescription, maxAttempts);
                     throw e; // Re-throw the exception if all retries fail
                 }
-                waitFor(1); // Wait a bit before retrying
+                if (e instanceof StaleElementReferenceException) {
+                    StaleAwareFieldDecorator.invalidate(element); // Find it again instead of retrying the dead reference
+                }
+                waitForDomToSettle("scrollAndClick retry", 1); // Let overlays or re-renders finish before retrying
                            }
         }
     }
@@ -82,7 +178,7 @@ public abstract class BasePage {
         int maxAttempts = 2;
         while(attempts < maxAttempts) {
             try {
-                wait.until(ExpectedConditions.visibilityOf(element)); // Ensure element is visible
+                wait.until(DomConditions.visibilityOf(element)); // Ensure element is visible
                 js.executeScript("arguments[0].click();", element);
                 logger.info("Successfully JS clicked element on attempt {}", attempts + 1);
                 return;
@@ -93,7 +189,10 @@ public abstract class BasePage {
                     logger.error("Failed to JS click after {} attempts.", maxAttempts);
                     throw e;
                 }
-                waitFor(1);
+                if (e instanceof StaleElementReferenceException) {
+                    StaleAwareFieldDecorator.invalidate(element);
+                }
+                waitForDomToSettle("jsClick retry", 1);
             }
         }
     }
@@ -109,6 +208,37 @@ public abstract class BasePage {
         }
     }
 
+    /**
+     * Waits until the DOM stops changing instead of sleeping for a fixed time. Returns as soon as no mutations
+     * or scrolling have been seen for a short quiet period, and never later than the sleep it replaces.
+     *
+     * @param reason          Short description of the wait site, used in {@link WaitStats}.
+     * @param replacedSeconds Duration of the fixed sleep previously used here; also the upper bound of the wait.
+     */
+    @Step("Waiting for the page to settle: {reason}")
+    protected void waitForDomToSettle(String reason, int replacedSeconds) {
+        settle(reason, null, "quiet", replacedSeconds);
+    }
+
+    /**
+     * Scrolls to the bottom of the page and waits for scrolling and lazy loading to settle.
+     *
+     * @param reason          Short description of the wait site, used in {@link WaitStats}.
+     * @param replacedSeconds Duration of the fixed sleep previously used here; also the upper bound of the wait.
+     */
+    @Step("Scrolling to the bottom of the page")
+    protected void scrollToBottom(String reason, int replacedSeconds) {
+        settle(reason, null, "scrollBottom", replacedSeconds);
+    }
+
+    private void settle(String reason, WebElement target, String mode, int replacedSeconds) {
+        long start = System.nanoTime();
+        DomConditions.settle(driver, target, mode, SETTLE_QUIET_MILLIS, replacedSeconds * 1000L);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        WaitStats.record(getClass().getSimpleName() + ": " + reason, replacedSeconds * 1000L, elapsedMillis);
+        logger.debug("Settled '{}' in {} ms (replaced a {} s sleep)", reason, elapsedMillis, replacedSeconds);
+    }
+
     @Step("Getting current page URL")
     public String getCurrentUrl() {
         return driver.getCurrentUrl();
@@ -127,6 +257,11 @@ public abstract class BasePage {
             for (String windowHandle : allWindows) {
                 if (!originalWindow.contentEquals(windowHandle)) {
                     driver.switchTo().window(windowHandle);
+                    LeanLoadProfile.applyToWindow(driver, windowHandle); // CDP blocking is per tab
+                    NetworkReplay.applyToWindow(driver, windowHandle); // So is record/replay interception
+                    TraceRecorder.applyToWindow(driver, windowHandle); // And the trace's network events
+                    invalidateElementCache();
+                    PageRegistry.windowChanged(driver); // Pages built on the previous window are not reused here
                     logger.info("Switched to new tab: " + driver.getTitle());
                     break;
                 }
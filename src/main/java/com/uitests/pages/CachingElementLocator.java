@@ -0,0 +1,75 @@
+package com.uitests.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Element locator that keeps the element it resolved until it is invalidated, instead of issuing a fresh
+ * findElement (and paying the implicit wait) on every access to a {@code @FindBy} field. Invalidation happens when
+ * the element turns out to be stale (see {@link StaleAwareFieldDecorator}) or when the owning page bumps the
+ * shared epoch. Lists are never cached.
+ */
+public class CachingElementLocator implements ElementLocator {
+
+    private final SearchContext searchContext;
+    private final By by;
+    private final String statsKey;
+    private final AtomicInteger pageEpoch;
+
+    private WebElement cachedElement;
+    private int cachedEpoch;
+
+    public CachingElementLocator(SearchContext searchContext, Field field, AtomicInteger pageEpoch) {
+        this(searchContext, new Annotations(field).buildBy(), field.getDeclaringClass().getSimpleName() + "." + field.getName(), pageEpoch);
+    }
+
+    /**
+     * @param by       The locator, already built from the field's annotations (see {@link PageMetadata}).
+     * @param statsKey Name under which lookups are counted in {@link LocatorStats}, e.g. "HomePage.productsMenuButton".
+     */
+    public CachingElementLocator(SearchContext searchContext, By by, String statsKey, AtomicInteger pageEpoch) {
+        this.searchContext = searchContext;
+        this.by = by;
+        this.statsKey = statsKey;
+        this.pageEpoch = pageEpoch;
+    }
+
+    @Override
+    public synchronized WebElement findElement() {
+        int epoch = pageEpoch.get();
+        if (cachedElement != null && cachedEpoch == epoch) {
+            LocatorStats.recordHit(statsKey);
+            return cachedElement;
+        }
+        LocatorStats.recordLookup(statsKey);
+        cachedElement = searchContext.findElement(by);
+        cachedEpoch = epoch;
+        return cachedElement;
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        LocatorStats.recordLookup(statsKey);
+        return searchContext.findElements(by);
+    }
+
+    public synchronized void invalidate() {
+        cachedElement = null;
+    }
+
+    public By getBy() {
+        return by;
+    }
+
+    @Override
+    public String toString() {
+        return statsKey + " (" + by + ")";
+    }
+}
@@ -0,0 +1,39 @@
+package com.uitests.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates {@link CachingElementLocator}s for the fields of one page object instance. All locators of the page
+ * share an epoch; bumping it with {@link #invalidateAll()} (after a navigation or window switch) makes every
+ * locator resolve its element again on next use.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private final SearchContext searchContext;
+    private final AtomicInteger epoch = new AtomicInteger();
+
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public CachingElementLocator createLocator(Field field) {
+        return new CachingElementLocator(searchContext, field, epoch);
+    }
+
+    /**
+     * Creates a locator from metadata built once per page class, without reading the field's annotations again.
+     */
+    public CachingElementLocator createLocator(By by, String statsKey) {
+        return new CachingElementLocator(searchContext, by, statsKey, epoch);
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+}
@@ -0,0 +1,245 @@
+package com.uitests.pages;
+
+import com.uitests.driver.DevToolsSession;
+import com.uitests.driver.DriverManager;
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Cookie consent handling shared by all page objects.
+ * <ul>
+ *     <li>Consent cookies and localStorage entries from {@code consent.seed.*} are pre-seeded per domain through
+ *     CDP before the first navigation, so the banner normally never shows up.</li>
+ *     <li>Origins whose banner was accepted in a session are remembered and return without waiting.</li>
+ *     <li>Detection, clicking and waiting for the banner to close run in one async script; a MutationObserver left
+ *     in the page accepts banners that appear after the detection window.</li>
+ * </ul>
+ */
+public final class CookieConsent {
+
+    private static final Logger logger = LoggerFactory.getLogger(CookieConsent.class);
+
+    private static final String CONSENT_SCRIPT =
+            "var handled = arguments[0], seededDomains = arguments[1], detectMs = arguments[2], seededDetectMs = arguments[3];" +
+            "var done = arguments[arguments.length - 1];" +
+            "var origin = location.origin, host = location.hostname;" +
+            "if (handled.indexOf(origin) >= 0) return done({origin: origin, result: 'remembered'});" +
+            "function visible(el) {" +
+            "  if (!el || !el.isConnected) return false;" +
+            "  var style = window.getComputedStyle(el);" +
+            "  var rect = el.getBoundingClientRect();" +
+            "  return style.display !== 'none' && style.visibility !== 'hidden' && rect.width > 0 && rect.height > 0;" +
+            "}" +
+            // Same matching rules as the former XPath: the OneTrust button, or any button mentioning accept/agree
+            "function findButton(strict) {" +
+            "  var byId = document.getElementById('onetrust-accept-btn-handler');" +
+            "  if (visible(byId)) return byId;" +
+            "  var scope = strict ? '[id*=cookie] button, [class*=cookie] button, [id*=consent] button, [class*=consent] button' : 'button';" +
+            "  var buttons = document.querySelectorAll(scope);" +
+            "  for (var i = 0; i < buttons.length; i++) {" +
+            "    var text = (buttons[i].textContent || '').trim().toLowerCase();" +
+            "    if ((text.indexOf('accept') >= 0 || text.indexOf('agree') >= 0) && visible(buttons[i])) return buttons[i];" +
+            "  }" +
+            "  return null;" +
+            "}" +
+            // Late banners: accept them whenever they show up while this document lives, then stop watching
+            "if (!window.__uitestsConsentWatcher) {" +
+            "  var scheduled = false;" +
+            "  window.__uitestsConsentWatcher = new MutationObserver(function () {" +
+            "    if (scheduled) return;" +
+            "    scheduled = true;" +
+            "    requestAnimationFrame(function () {" +
+            "      scheduled = false;" +
+            "      var late = findButton(true);" +
+            "      if (late) { late.click(); window.__uitestsConsentWatcher.disconnect(); }" +
+            "    });" +
+            "  });" +
+            "  window.__uitestsConsentWatcher.observe(document.documentElement, {childList: true, subtree: true});" +
+            "}" +
+            "function closed(button) {" +
+            "  var start = performance.now();" +
+            "  var timer = setInterval(function () {" +
+            "    if (!visible(button) || performance.now() - start > 5000) {" +
+            "      clearInterval(timer);" +
+            "      done({origin: origin, result: visible(button) ? 'clicked' : 'accepted'});" +
+            "    }" +
+            "  }, 50);" +
+            "}" +
+            "var button = findButton(false);" +
+            "if (button) { button.click(); return closed(button); }" +
+            "var seeded = seededDomains.some(function (d) { d = d.replace(/^\\./, ''); return host === d || host.endsWith('.' + d); });" +
+            "var budget = seeded ? seededDetectMs : detectMs;" +
+            "if (budget <= 0) return done({origin: origin, result: 'absent'});" +
+            "var observer = new MutationObserver(function () {" +
+            "  var appeared = findButton(false);" +
+            "  if (appeared) { observer.disconnect(); clearTimeout(timeout); appeared.click(); closed(appeared); }" +
+            "});" +
+            "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true});" +
+            "var timeout = setTimeout(function () { observer.disconnect(); done({origin: origin, result: 'absent'}); }, budget);";
+
+    private static final String STORAGE_SEED_SCRIPT =
+            "(function (domains, entries) {" +
+            "  var host = location.hostname;" +
+            "  var match = domains.some(function (d) { d = d.replace(/^\\./, ''); return host === d || host.endsWith('.' + d); });" +
+            "  if (!match) return;" +
+            "  try { Object.keys(entries).forEach(function (k) { if (localStorage.getItem(k) === null) localStorage.setItem(k, entries[k]); }); } catch (e) {}" +
+            "})(%s, %s);";
+
+    private static final Map<WebDriver, Set<String>> handledOrigins = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Boolean> seededSessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<WebDriver, Boolean> storageScriptInstalled = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final LongAdder calls = new LongAdder();
+    private static final LongAdder remembered = new LongAdder();
+    private static final LongAdder accepted = new LongAdder();
+    private static final LongAdder nanosSpent = new LongAdder();
+
+    static {
+        // Pooled sessions have their cookies cleared on release, so what was handled no longer applies
+        DriverManager.addReleaseListener(driver -> {
+            handledOrigins.remove(DevToolsSession.unwrap(driver));
+            seededSessions.remove(DevToolsSession.unwrap(driver));
+        });
+    }
+
+    private CookieConsent() {
+    }
+
+    /**
+     * Pre-seeds the configured consent cookies and localStorage entries for the session. Idempotent per session.
+     * Only Chromium sessions can be seeded before the first navigation; others rely on detection.
+     */
+    public static void seed(WebDriver driver) {
+        WebDriver key = DevToolsSession.unwrap(driver);
+        if (seedDomains().isEmpty() || seededSessions.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        DevToolsSession.of(driver).ifPresent(devTools -> {
+            List<Map<String, Object>> cookies = new ArrayList<>();
+            for (String domain : seedDomains()) {
+                seedCookies().forEach((name, value) -> {
+                    Map<String, Object> cookie = new HashMap<>();
+                    cookie.put("name", name);
+                    cookie.put("value", value);
+                    cookie.put("domain", domain);
+                    cookie.put("path", "/");
+                    cookies.add(cookie);
+                });
+            }
+            if (!cookies.isEmpty()) {
+                devTools.send("Network.setCookies", Collections.singletonMap("cookies", cookies));
+            }
+            Map<String, String> storage = seedLocalStorage();
+            if (!storage.isEmpty() && storageScriptInstalled.putIfAbsent(key, Boolean.TRUE) == null) {
+                Json json = new Json();
+                String source = String.format(STORAGE_SEED_SCRIPT, json.toJson(seedDomains()), json.toJson(storage));
+                devTools.send("Page.addScriptToEvaluateOnNewDocument", Collections.singletonMap("source", source));
+            }
+            logger.info("Pre-seeded cookie consent for {}", seedDomains());
+        });
+    }
+
+    /**
+     * Accepts the consent banner of the current origin if it is (or becomes) visible within the detection window.
+     * Returns immediately for origins whose banner was already accepted in this session.
+     */
+    @SuppressWarnings("unchecked")
+    public static void acceptIfPresent(WebDriver driver) {
+        long start = System.nanoTime();
+        WebDriver key = DevToolsSession.unwrap(driver);
+        Set<String> handled = handledOrigins.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+        try {
+            Map<String, Object> outcome = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(CONSENT_SCRIPT,
+                    new ArrayList<>(handled), seedDomains(),
+                    ConfigReader.getIntProperty("consent.detectMillis", 2000),
+                    ConfigReader.getIntProperty("consent.seededDetectMillis", 0));
+            String origin = String.valueOf(outcome.get("origin"));
+            String result = String.valueOf(outcome.get("result"));
+            switch (result) {
+                case "remembered":
+                    remembered.increment();
+                    break;
+                case "accepted":
+                    accepted.increment();
+                    handled.add(origin);
+                    logger.info("Cookie consent accepted for {}", origin);
+                    break;
+                case "clicked":
+                    logger.warn("Clicked cookie consent for {} but the banner is still visible", origin);
+                    break;
+                default:
+                    // Not remembered: the banner may still show up on a later page of this origin
+                    logger.info("Cookie consent banner not shown for {}", origin);
+            }
+        } finally {
+            calls.increment();
+            nanosSpent.add(System.nanoTime() - start);
+        }
+    }
+
+    public static long getTimeSpentMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanosSpent.sum());
+    }
+
+    /**
+     * Forgets the call counts and time spent, e.g. before another run in the same JVM. Origins handled and
+     * consent seeded per session are kept, as the sessions themselves outlive the run.
+     */
+    public static void reset() {
+        calls.reset();
+        remembered.reset();
+        accepted.reset();
+        nanosSpent.reset();
+    }
+
+    public static String summary() {
+        return String.format("calls=%d, remembered=%d, accepted=%d, timeSpentMs=%d",
+                calls.sum(), remembered.sum(), accepted.sum(), getTimeSpentMillis());
+    }
+
+    private static List<String> seedDomains() {
+        return Arrays.stream(ConfigReader.getProperty("consent.seed.domains", "").split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, String> seedCookies() {
+        return parsePairs(ConfigReader.getProperty("consent.seed.cookies", ""));
+    }
+
+    private static Map<String, String> seedLocalStorage() {
+        return parsePairs(ConfigReader.getProperty("consent.seed.localStorage", ""));
+    }
+
+    // "name=value;name2=value2", where the value {now} is replaced by the current ISO-8601 timestamp
+    private static Map<String, String> parsePairs(String value) {
+        Map<String, String> pairs = new HashMap<>();
+        for (String pair : value.split(";")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                String pairValue = pair.substring(separator + 1).trim();
+                pairs.put(pair.substring(0, separator).trim(), "{now}".equals(pairValue) ? Instant.now().toString() : pairValue);
+            }
+        }
+        return pairs;
+    }
+}
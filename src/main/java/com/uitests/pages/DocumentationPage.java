@@ -5,10 +5,10 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@PerformanceBudget(lcpMillis = 2500, transferBytes = 2_000_000)
 public class DocumentationPage extends BasePage {
     private static final Logger logger = LoggerFactory.getLogger(DocumentationPage.class);
 
@@ -24,6 +24,12 @@ public class DocumentationPage extends BasePage {
     @FindBy(xpath = "//ul[@class='pagination pagination-sm justify-content-center flex-wrap']")
     private WebElement paginationElement;
 
+    // Links or buttons reading "Next" in any case, or only digits (a page number); XPath 1.0 so browsers can evaluate it
+    private static final By PAGINATION_FALLBACK = LocatorCompiler.checked(By.xpath(
+            "//a[contains(translate(normalize-space(), 'NEXT', 'next'), 'next') or (normalize-space() != '' and translate(normalize-space(), '0123456789', '') = '')]"
+                    + " | //button[contains(translate(normalize-space(), 'NEXT', 'next'), 'next') or (normalize-space() != '' and translate(normalize-space(), '0123456789', '') = '')]"),
+            "DocumentationPage.PAGINATION_FALLBACK");
+
 
     public DocumentationPage() {
         super();
@@ -31,8 +37,9 @@ public class DocumentationPage extends BasePage {
 
     @Step("Verify Documentation page is loaded by checking title or URL")
     public boolean isDocumentationPageLoaded() {
-        String currentUrl = getCurrentUrl();
-        String pageTitle = getPageTitle().toLowerCase();
+        PageSnapshot state = snapshot().take(); // URL and title in one round trip
+        String currentUrl = state.getUrl();
+        String pageTitle = state.getTitle().toLowerCase();
         boolean loaded = currentUrl.contains("docs.cloudbees.com") || pageTitle.contains("documentation");
         logger.info("Documentation page loaded: {}, URL: {}, Title: {}", loaded, currentUrl, pageTitle);
         return loaded;
@@ -42,22 +49,26 @@ public class DocumentationPage extends BasePage {
     @Step("Click in the search field")
     public DocumentationPage clickSearchField() {
         logger.info("Clicking in the search field.");
-        wait.until(ExpectedConditions.elementToBeClickable(searchInputField)).click();
-        waitFor(1); // Allow time for any overlay or UI change
+        wait.until(DomConditions.elementToBeClickable(searchInputField)).click();
+        waitForDomToSettle("search field overlay", 1); // Allow time for any overlay or UI change
         return this;
     }
 
     @Step("Verify search interface is active or URL changed")
     public boolean isSearchInterfaceActive() {
-        String currentUrl = getCurrentUrl();
+        PageSnapshot state = searchState();
+        String currentUrl = state.getUrl();
         if (currentUrl.contains("/search") || currentUrl.contains("?q=") || currentUrl.contains("?query=")) {
             logger.info("Search interface active: URL indicates search page. URL: {}", currentUrl);
             return true;
         }
         try {
             // Check if the active search input is now visible and enabled
-            wait.until(ExpectedConditions.visibilityOf(activeSearchInput));
-            if(activeSearchInput.isDisplayed() && activeSearchInput.isEnabled()){
+            if (!state.element("activeSearchInput").isVisible()) {
+                wait.until(DomConditions.visibilityOf(activeSearchInput));
+                state = searchState();
+            }
+            if (state.element("activeSearchInput").isVisible() && state.element("activeSearchInput").isEnabled()) {
                 logger.info("Search interface active: Active search input is visible and enabled.");
                 return true;
             }
@@ -65,8 +76,8 @@ public class DocumentationPage extends BasePage {
             logger.info("Could not confirm active search input, checking original search field's state.");
             try {
                 // Fallback: check if the original search input is still the active element
-                WebElement focusedElement = driver.switchTo().activeElement();
-                if (searchInputField.equals(focusedElement) || activeSearchInput.equals(focusedElement)) {
+                state = searchState();
+                if (state.element("searchInputField").isFocused() || state.element("activeSearchInput").isFocused()) {
                     logger.info("Search interface active: Search input field is focused.");
                     return true;
                 }
@@ -78,6 +89,11 @@ public class DocumentationPage extends BasePage {
         return false;
     }
 
+    // URL plus visibility, enabled state and focus of both search inputs, read in one round trip
+    private PageSnapshot searchState() {
+        return snapshot().field("activeSearchInput").field("searchInputField").take();
+    }
+
 
     @Step("Search for term: {searchTerm}")
     public DocumentationPage searchFor(String searchTerm) {
@@ -85,7 +101,7 @@ public class DocumentationPage extends BasePage {
         WebElement inputToUse;
         try {
             // Prefer the active/specific search input if available
-            wait.until(ExpectedConditions.visibilityOf(activeSearchInput));
+            wait.until(DomConditions.visibilityOf(activeSearchInput));
             inputToUse = activeSearchInput;
             logger.info("Using active search input field.");
         } catch (Exception e) {
@@ -93,13 +109,14 @@ public class DocumentationPage extends BasePage {
             inputToUse = searchInputField; // Fallback to the initially clicked field
         }
 
-        wait.until(ExpectedConditions.elementToBeClickable(inputToUse));
+        wait.until(DomConditions.elementToBeClickable(inputToUse));
         inputToUse.clear();
         inputToUse.sendKeys(searchTerm);
         inputToUse.sendKeys(Keys.ENTER);
         logger.info("Submitted search for: {}", searchTerm);
         acceptCookiesIfPresent(); // Handle cookies that might pop up after search
-        waitFor(3); // Wait for search results to load
+        wait.until(DomConditions.documentReady());
+        waitForDomToSettle("search results", 3); // Wait for search results to finish rendering
         return this;
     }
 
@@ -107,16 +124,18 @@ public class DocumentationPage extends BasePage {
     public boolean isPaginationPresent() {
         logger.info("Verifying pagination presence.");
         try {
-            js.executeScript("window.scrollTo(0, document.body.scrollHeight)");
-            waitFor(1); // Wait for scroll and potential lazy loading
-            wait.until(ExpectedConditions.visibilityOf(paginationElement));
-            boolean present = paginationElement.isDisplayed();
+            scrollToBottom("pagination lazy loading", 1); // Wait for scroll and potential lazy loading
+            boolean present = snapshot().field("paginationElement").take().element("paginationElement").isVisible();
+            if (!present) {
+                wait.until(DomConditions.visibilityOf(paginationElement));
+                present = true;
+            }
             logger.info("Pagination present: {}", present);
             return present;
         } catch (Exception e) {
             logger.warn("Pagination element not found or not visible: " + e.getMessage());
             // Fallback: Check for common text like "Next" or page numbers if the above generic nav fails
-            boolean hasNextOrPageNumbers = !driver.findElements(By.xpath("//*[self::a or self::button][contains(translate(normalize-space(), 'NEXT', 'next'),'next') or matches(text(), '^\\d+$')]")).isEmpty();
+            boolean hasNextOrPageNumbers = !driver.findElements(PAGINATION_FALLBACK).isEmpty();
             if(hasNextOrPageNumbers){
                 logger.info("Fallback: Found 'Next' or page numbers, considering pagination present.");
                 return true;
@@ -0,0 +1,171 @@
+package com.uitests.pages;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * Drop-in counterparts of the {@link org.openqa.selenium.support.ui.ExpectedConditions} used by the page objects.
+ * Each evaluation runs the condition inside the browser with {@code executeAsyncScript}, re-checking it on DOM
+ * mutations, scroll, transition and animation events, and returns as soon as it holds. A single WebDriver round
+ * trip therefore covers up to {@code wait.slice.ms} of waiting instead of one HTTP poll every 500 ms.
+ */
+public final class DomConditions {
+
+    // How long one in-browser evaluation may block before handing control back to WebDriverWait
+    private static final long SLICE_MILLIS = ConfigReader.getIntProperty("wait.slice.ms", 5000);
+
+    private static final String WAIT_SCRIPT =
+            "var target = arguments[0], mode = arguments[1], quietMs = arguments[2], budgetMs = arguments[3];" +
+            "var done = arguments[arguments.length - 1];" +
+            "var settling = mode === 'quiet' || mode === 'scroll' || mode === 'scrollBottom';" +
+            "function visible(el) {" +
+            "  if (!el || !el.isConnected) return false;" +
+            "  var style = window.getComputedStyle(el);" +
+            "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse'" +
+            "      || parseFloat(style.opacity) === 0) return false;" +
+            "  var rect = el.getBoundingClientRect();" +
+            "  return rect.width > 0 && rect.height > 0;" +
+            "}" +
+            "function holds() {" +
+            "  switch (mode) {" +
+            "    case 'visible': return visible(target);" +
+            "    case 'clickable': return visible(target) && !target.disabled;" +
+            "    case 'invisible': return !visible(target);" +
+            "    case 'ready': return document.readyState === 'complete';" +
+            "    default: return performance.now() - last >= quietMs;" +
+            "  }" +
+            "}" +
+            "var start = performance.now(), last = start, finished = false;" +
+            "var observer = new MutationObserver(function () { last = performance.now(); tick(); });" +
+            "function onActivity() { last = performance.now(); tick(); }" +
+            "var events = ['scroll', 'transitionend', 'animationend', 'readystatechange', 'load'];" +
+            "function finish(result) {" +
+            "  if (finished) return;" +
+            "  finished = true;" +
+            "  observer.disconnect();" +
+            "  clearInterval(ticker);" +
+            "  events.forEach(function (e) { document.removeEventListener(e, onActivity, true); });" +
+            "  done(result);" +
+            "}" +
+            "function tick() {" +
+            "  if (finished) return;" +
+            "  if (holds()) return finish(true);" +
+            "  if (performance.now() - start >= budgetMs) finish(settling);" +
+            "}" +
+            "if (mode === 'scroll') target.scrollIntoView({block: 'center', inline: 'nearest'});" +
+            "if (mode === 'scrollBottom') window.scrollTo(0, document.body.scrollHeight);" +
+            "if (!settling && holds()) return done(true);" +
+            "observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});" +
+            "events.forEach(function (e) { document.addEventListener(e, onActivity, true); });" +
+            // Layout-only changes (CSS transitions, lazy images) do not mutate the DOM, so re-check on a short timer too
+            "var ticker = setInterval(tick, 50);";
+
+    private DomConditions() {
+    }
+
+    /**
+     * In-browser equivalent of {@code ExpectedConditions.visibilityOf}.
+     */
+    public static ExpectedCondition<WebElement> visibilityOf(WebElement element) {
+        return elementCondition(element, "visible");
+    }
+
+    /**
+     * In-browser equivalent of {@code ExpectedConditions.elementToBeClickable}.
+     */
+    public static ExpectedCondition<WebElement> elementToBeClickable(WebElement element) {
+        return elementCondition(element, "clickable");
+    }
+
+    /**
+     * In-browser equivalent of {@code ExpectedConditions.invisibilityOf}. A detached element counts as invisible;
+     * for a field proxy whose cached element went stale, the field is looked up again on the next evaluation.
+     */
+    public static ExpectedCondition<Boolean> invisibilityOf(WebElement element) {
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                try {
+                    return runInBrowser(driver, element, "invisible", 0, SLICE_MILLIS);
+                } catch (StaleElementReferenceException e) {
+                    return !StaleAwareFieldDecorator.invalidate(element);
+                } catch (NoSuchElementException e) {
+                    return true; // The proxy's re-lookup found nothing
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "invisibility of " + element + " (in-browser)";
+            }
+        };
+    }
+
+    /**
+     * Waits until {@code document.readyState} is "complete".
+     */
+    public static ExpectedCondition<Boolean> documentReady() {
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return runInBrowser(driver, null, "ready", 0, SLICE_MILLIS) ? true : null;
+            }
+
+            @Override
+            public String toString() {
+                return "document ready state to be complete (in-browser)";
+            }
+        };
+    }
+
+    /**
+     * Blocks until the DOM has seen no mutations or scrolling for {@code quietMillis}, or until
+     * {@code budgetMillis} have passed. Never fails: a page that keeps changing is simply released at the budget.
+     *
+     * @param target Element to scroll into view first (mode "scroll"), or null.
+     * @param mode   "quiet", "scroll" or "scrollBottom".
+     */
+    static void settle(WebDriver driver, WebElement target, String mode, long quietMillis, long budgetMillis) {
+        runInBrowser(driver, target, mode, quietMillis, budgetMillis);
+    }
+
+    private static ExpectedCondition<WebElement> elementCondition(WebElement element, String mode) {
+        return new ExpectedCondition<WebElement>() {
+            @Override
+            public WebElement apply(WebDriver driver) {
+                try {
+                    return runInBrowser(driver, element, mode, 0, SLICE_MILLIS) ? element : null;
+                } catch (StaleElementReferenceException e) {
+                    // A re-rendered field: drop the proxy's cache so the next evaluation unwraps the new element
+                    if (StaleAwareFieldDecorator.invalidate(element)) {
+                        return null;
+                    }
+                    throw e;
+                }
+            }
+
+            @Override
+            public String toString() {
+                return mode + " state of " + element + " (in-browser)";
+            }
+        };
+    }
+
+    private static boolean runInBrowser(WebDriver driver, WebElement target, String mode, long quietMillis, long budgetMillis) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT, target, mode, quietMillis, budgetMillis);
+            return Boolean.TRUE.equals(result);
+        } catch (JavascriptException | ScriptTimeoutException e) {
+            // Typically the document was unloaded mid-wait by a navigation; let the caller re-evaluate. Anything
+            // else (stale target, lost session, open alert) propagates instead of spinning until the wait times out
+            return false;
+        }
+    }
+}
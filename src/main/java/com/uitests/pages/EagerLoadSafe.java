@@ -0,0 +1,16 @@
+package com.uitests.pages;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a page object whose interactions only rely on explicit element waits, so it can be used as soon as the
+ * DOM is ready. Under the lean load profile (eager page load strategy) pages without this annotation wait for the
+ * document to finish loading before they are used.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EagerLoadSafe {
+}
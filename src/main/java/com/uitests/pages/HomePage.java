@@ -1,17 +1,18 @@
 package com.uitests.pages;
 
 
+import com.uitests.driver.LeanLoadProfile;
 import io.qameta.allure.Step;
 import org.openqa.selenium.ElementClickInterceptedException;
 import org.openqa.selenium.StaleElementReferenceException;
-import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@EagerLoadSafe
+@PerformanceBudget(lcpMillis = 2500, transferBytes = 2_000_000)
 public class HomePage extends BasePage {
     private static final Logger logger = LoggerFactory.getLogger(HomePage.class);
 
@@ -35,21 +36,13 @@ public class HomePage extends BasePage {
 
     @Step("Navigate to CloudBees Homepage")
     public HomePage navigateToHomePage(String url) {
-
-        int attempts = 0;
         logger.info("Navigating to URL: {}", url);
-        int maxAttempts = 3;
-        while (attempts < maxAttempts) {
-            try {
-                driver.get(url);
-                return this;
-            }
-
-            catch (TimeoutException e) {
-                attempts++;
-        }
-        }
-
+        CookieConsent.seed(driver); // Consent cookies go in before the first request to the site
+        // Bounded retries with backoff; throws TimeoutException only if the document never became interactive
+        new Navigator(driver).navigate(url, null);
+        invalidateElementCache();
+        LeanLoadProfile.reportNavigation(driver, url);
+        recordPerformance();
         acceptCookiesIfPresent(); // Handle cookies on page load
         return this;
     }
@@ -58,38 +51,45 @@ public class HomePage extends BasePage {
     public CloudBeesCDROPage navigateToCloudBeesCDRO() {
         logger.info("Navigating to CloudBees CD/RO page");
         Actions actions = new Actions(driver);
-        wait.until(ExpectedConditions.visibilityOf(productsMenuButton));
+        wait.until(DomConditions.visibilityOf(productsMenuButton));
         actions.moveToElement(productsMenuButton).click().perform();
         logger.info("clicked over 'Products' menu.");
 
-        wait.until(ExpectedConditions.visibilityOf(cloudbeesCDROLink));
+        wait.until(DomConditions.visibilityOf(cloudbeesCDROLink));
         // jsClick(cloudbeesCDROLink); // Using JS click for potential overlay issues
         scrollAndClick(cloudbeesCDROLink, "CloudBees CD/RO Link");
         logger.info("Clicked 'CloudBees CD/RO' link.");
+        new Navigator(driver).awaitNavigation("CloudBees CD/RO page", d -> d.getCurrentUrl().contains("/products/cloudbees-cdro"));
         acceptCookiesIfPresent(); // Handle cookies on new page
-        return new CloudBeesCDROPage();
+        return PageRegistry.get(CloudBeesCDROPage.class);
     }
 
+    /**
+     * Opens Documentation from the Resources menu and switches to the tab it opens in.
+     */
     @Step("Navigate to Documentation page via Resources menu")
     public DocumentationPage navigateToDocumentationPage() {
         logger.info("Navigating to Documentation page");
         Actions actions = new Actions(driver);
-        wait.until(ExpectedConditions.elementToBeClickable(resourcesMenuButton));
+        wait.until(DomConditions.elementToBeClickable(resourcesMenuButton));
         //actions.moveToElement(resourcesMenuButton).click().perform();
         jsClick(resourcesMenuButton);
         logger.info("Clicked over 'Resources' menu.");
-        waitFor(1);
+        waitForDomToSettle("Resources menu", 1);
         try {
-            wait.until(ExpectedConditions.visibilityOf(documentationLink));
+            wait.until(DomConditions.visibilityOf(documentationLink));
         }
         catch (Exception E)
         {
          logger.warn("visibility for doc failed still trying to click");
         }
+        int windowsBefore = driver.getWindowHandles().size();
         jsClick(documentationLink);
         //scrollAndClick(documentationLink, "Documentation Link");
         logger.info("Clicked 'Documentation' link.");
-       
-        return new DocumentationPage();
+        // Documentation opens in a new tab; its page object is built there, on the document it describes
+        wait.until(d -> d.getWindowHandles().size() > windowsBefore);
+        switchToNewestTab();
+        return PageRegistry.get(DocumentationPage.class);
     }
 }
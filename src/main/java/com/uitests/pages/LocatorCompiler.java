@@ -0,0 +1,408 @@
+package com.uitests.pages;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.FindBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Static checks and rewrites of locators, done once per expression.
+ * <ul>
+ *     <li>XPath expressions must be valid XPath 1.0, the only version browsers evaluate; XPath 2.0 functions such
+ *     as {@code matches()} are reported as errors.</li>
+ *     <li>Full-document {@code //*} scans, unions of them, {@code translate()} case folding and reverse axes
+ *     are reported as warnings.</li>
+ *     <li>XPath made only of element steps and attribute tests ({@code =}, {@code contains}, {@code starts-with},
+ *     presence, joined with {@code and}) is rewritten to the equivalent CSS selector, which the browser matches
+ *     natively instead of walking the document in the XPath engine. Expressions testing text stay XPath.</li>
+ * </ul>
+ * Rewrites are applied to {@code @FindBy} fields through {@link PageMetadata} unless {@code locators.rewrite=false}.
+ * {@link #checkPackage} reports all page objects of a package at suite start; with {@code locators.strict=true}
+ * errors fail it.
+ */
+public final class LocatorCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocatorCompiler.class);
+
+    private static final Pattern LITERAL = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    private static final Pattern XPATH2_FUNCTION = Pattern.compile(
+            "\\b(matches|replace|tokenize|lower-case|upper-case|ends-with|string-join|exists|empty|abs|distinct-values|"
+                    + "index-of|reverse|subsequence|max|min|avg|compare|codepoints-to-string|normalize-unicode)\\s*\\(");
+    private static final Pattern REVERSE_AXIS = Pattern.compile("\\b(ancestor|ancestor-or-self|preceding|preceding-sibling)::");
+    private static final Pattern STEP = Pattern.compile("(//|/)([a-zA-Z][\\w-]*|\\*)((?:\\[(?:[^\\[\\]'\"]|'[^']*'|\"[^\"]*\")*\\])*)");
+    private static final Pattern PREDICATE = Pattern.compile("\\[((?:[^\\[\\]'\"]|'[^']*'|\"[^\"]*\")*)\\]");
+    private static final Pattern ATTRIBUTE_TEST = Pattern.compile(
+            "(?:(contains|starts-with)\\(\\s*@([\\w-]+)\\s*,\\s*('[^']*'|\"[^\"]*\")\\s*\\)"
+                    + "|@([\\w-]+)\\s*=\\s*('[^']*'|\"[^\"]*\")"
+                    + "|@([\\w-]+))");
+
+    private static final Map<String, Result> compiled = new ConcurrentHashMap<>();
+
+    private LocatorCompiler() {
+    }
+
+    /**
+     * Checks a locator and, if possible, rewrites it. Results are cached per expression.
+     */
+    public static Result compile(By by) {
+        return compiled.computeIfAbsent(by.toString(), k -> analyse(by));
+    }
+
+    /**
+     * Compiles a locator written in code, logging its findings once.
+     *
+     * @return The locator to use: the rewritten one if rewriting is enabled and possible, otherwise the original.
+     */
+    public static By checked(By by, String name) {
+        Result result = compile(by);
+        result.log(name);
+        return isRewriteEnabled() ? result.getBy() : by;
+    }
+
+    static boolean isRewriteEnabled() {
+        return ConfigReader.getBooleanProperty("locators.rewrite", true);
+    }
+
+    /**
+     * Checks the {@code @FindBy} fields of every class in the package and logs what was found.
+     *
+     * @return The number of locators with errors.
+     * @throws IllegalStateException if there are errors and {@code locators.strict=true}.
+     */
+    public static int checkPackage(String packageName) {
+        int errors = 0;
+        int rewritten = 0;
+        int checked = 0;
+        for (Class<?> type : classesIn(packageName)) {
+            if (!hasFindByFields(type)) {
+                continue;
+            }
+            for (Map.Entry<String, Result> entry : PageMetadata.of(type).getCompiledLocators().entrySet()) {
+                Result result = entry.getValue();
+                checked++;
+                errors += result.hasErrors() ? 1 : 0;
+                rewritten += result.isRewritten() ? 1 : 0;
+            }
+        }
+        logger.info("Checked {} locators in {}: {} rewritten to CSS, {} with errors", checked, packageName, rewritten, errors);
+        if (errors > 0 && ConfigReader.getBooleanProperty("locators.strict", false)) {
+            throw new IllegalStateException(errors + " locators in " + packageName + " cannot be evaluated by browsers; see the log");
+        }
+        return errors;
+    }
+
+    private static Result analyse(By by) {
+        if (!(by instanceof By.Remotable) || !"xpath".equals(((By.Remotable) by).getRemoteParameters().using())) {
+            return new Result(by, by, Collections.emptyList());
+        }
+        String xpath = String.valueOf(((By.Remotable) by).getRemoteParameters().value());
+        List<Finding> findings = new ArrayList<>();
+        String code = LITERAL.matcher(xpath).replaceAll("''"); // So that text inside literals is not mistaken for syntax
+
+        Matcher xpath2 = XPATH2_FUNCTION.matcher(code);
+        while (xpath2.find()) {
+            findings.add(Finding.error(xpath2.group(1) + "() is XPath 2.0; browsers only evaluate XPath 1.0"));
+        }
+        try {
+            XPathFactory.newInstance().newXPath().compile(xpath);
+        } catch (XPathExpressionException e) {
+            if (findings.isEmpty()) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                findings.add(Finding.error("not valid XPath 1.0: " + cause.getMessage()));
+            }
+        }
+        boolean valid = findings.isEmpty();
+        String css = valid ? toCss(xpath) : null;
+        int scans = count(code, "//*");
+        int branches = splitUnion(code).size();
+        if (scans > 0 && css == null) {
+            findings.add(Finding.warning(branches > 1 && scans > 1
+                    ? "union of " + branches + " branches with " + scans + " full-document //* scans; every branch walks the whole DOM"
+                    : "full-document //* scan; name the element or anchor the path to a container"));
+        }
+        int translates = count(code, "translate(");
+        if (translates > 0) {
+            findings.add(Finding.warning(translates + " translate() call(s) evaluated per candidate node; compare exact text or match in CSS/JS"));
+        }
+        if (scans > 0 && REVERSE_AXIS.matcher(code).find()) {
+            findings.add(Finding.warning("reverse axis inside a //* scan walks up from every element"));
+        }
+        return new Result(by, css == null ? by : By.cssSelector(css), findings);
+    }
+
+    /**
+     * @return The equivalent CSS selector, or null if the expression uses anything CSS cannot express.
+     */
+    static String toCss(String xpath) {
+        StringBuilder css = new StringBuilder();
+        Matcher step = STEP.matcher(xpath.trim());
+        int position = 0;
+        String expression = xpath.trim();
+        while (position < expression.length()) {
+            if (!step.find(position) || step.start() != position) {
+                return null;
+            }
+            String axis = step.group(1);
+            if (position == 0 && !"//".equals(axis)) {
+                return null; // Anchored at the document root
+            }
+            if (position > 0) {
+                css.append("//".equals(axis) ? " " : " > ");
+            }
+            String conditions = attributeSelectors(step.group(3));
+            if (conditions == null) {
+                return null;
+            }
+            String tag = step.group(2);
+            css.append("*".equals(tag) && !conditions.isEmpty() ? "" : tag).append(conditions);
+            position = step.end();
+        }
+        return css.length() == 0 ? null : css.toString();
+    }
+
+    private static String attributeSelectors(String predicates) {
+        StringBuilder selectors = new StringBuilder();
+        Matcher predicate = PREDICATE.matcher(predicates);
+        while (predicate.find()) {
+            for (String term : splitOutsideLiterals(predicate.group(1), " and ")) {
+                Matcher test = ATTRIBUTE_TEST.matcher(term.trim());
+                if (!test.matches()) {
+                    return null; // Text, position or another function
+                }
+                if (test.group(1) != null) {
+                    String operator = "contains".equals(test.group(1)) ? "*=" : "^=";
+                    String value = cssString(test.group(3));
+                    if (value == null || value.length() == 2) {
+                        return null; // An empty needle matches everything in XPath but nothing in CSS
+                    }
+                    selectors.append('[').append(test.group(2)).append(operator).append(value).append(']');
+                } else if (test.group(4) != null) {
+                    String value = cssString(test.group(5));
+                    if (value == null) {
+                        return null;
+                    }
+                    selectors.append('[').append(test.group(4)).append('=').append(value).append(']');
+                } else {
+                    selectors.append('[').append(test.group(6)).append(']');
+                }
+            }
+        }
+        return selectors.toString();
+    }
+
+    private static String cssString(String literal) {
+        String value = literal.substring(1, literal.length() - 1);
+        if (value.contains("\\") || value.contains("\n")) {
+            return null;
+        }
+        return value.contains("'") ? '"' + value + '"' : "'" + value + "'";
+    }
+
+    private static List<String> splitUnion(String code) {
+        List<String> branches = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == '[' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                branches.add(code.substring(start, i));
+                start = i + 1;
+            }
+        }
+        branches.add(code.substring(start));
+        return branches;
+    }
+
+    private static List<String> splitOutsideLiterals(String text, String separator) {
+        List<String> parts = new ArrayList<>();
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (text.startsWith(separator, i)) {
+                parts.add(text.substring(start, i));
+                start = i + separator.length();
+                i = start - 1;
+            }
+        }
+        parts.add(text.substring(start));
+        return parts;
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean hasFindByFields(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FindBy.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Class<?>> classesIn(String packageName) {
+        String path = packageName.replace('.', '/');
+        List<String> names = new ArrayList<>();
+        try {
+            Enumeration<URL> roots = LocatorCompiler.class.getClassLoader().getResources(path);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if ("jar".equals(root.getProtocol())) {
+                    Enumeration<JarEntry> entries = ((JarURLConnection) root.openConnection()).getJarFile().entries();
+                    while (entries.hasMoreElements()) {
+                        String entry = entries.nextElement().getName();
+                        if (entry.startsWith(path + "/") && entry.indexOf('/', path.length() + 1) < 0) {
+                            names.add(entry.substring(path.length() + 1));
+                        }
+                    }
+                } else if ("file".equals(root.getProtocol())) {
+                    try (Stream<Path> files = Files.list(Paths.get(root.toURI()))) {
+                        names.addAll(files.map(p -> p.getFileName().toString()).collect(Collectors.toList()));
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            logger.warn("Could not list the classes of {}: {}", packageName, e.getMessage());
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            if (name.endsWith(".class") && !name.contains("$")) {
+                try {
+                    classes.add(Class.forName(packageName + "." + name.substring(0, name.length() - 6), false,
+                            LocatorCompiler.class.getClassLoader()));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    logger.debug("Skipping {}: {}", name, e.getMessage());
+                }
+            }
+        }
+        return classes;
+    }
+
+    public static final class Finding {
+        private final boolean error;
+        private final String message;
+
+        private Finding(boolean error, String message) {
+            this.error = error;
+            this.message = message;
+        }
+
+        static Finding error(String message) {
+            return new Finding(true, message);
+        }
+
+        static Finding warning(String message) {
+            return new Finding(false, message);
+        }
+
+        public boolean isError() {
+            return error;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return (error ? "error: " : "warning: ") + message;
+        }
+    }
+
+    public static final class Result {
+        private final By original;
+        private final By by;
+        private final List<Finding> findings;
+        private volatile boolean logged;
+
+        private Result(By original, By by, List<Finding> findings) {
+            this.original = original;
+            this.by = by;
+            this.findings = Collections.unmodifiableList(findings);
+        }
+
+        public By getOriginal() {
+            return original;
+        }
+
+        /**
+         * @return The rewritten locator, or the original if it could not be rewritten.
+         */
+        public By getBy() {
+            return by;
+        }
+
+        public boolean isRewritten() {
+            return by != original;
+        }
+
+        public List<Finding> getFindings() {
+            return findings;
+        }
+
+        public boolean hasErrors() {
+            return findings.stream().anyMatch(Finding::isError);
+        }
+
+        /**
+         * Logs the findings and the rewrite the first time the result is reported.
+         */
+        void log(String name) {
+            if (logged) {
+                return;
+            }
+            logged = true;
+            for (Finding finding : findings) {
+                if (finding.isError()) {
+                    logger.error("Locator {} ({}): {}", name, original, finding.getMessage());
+                } else {
+                    logger.warn("Locator {} ({}): {}", name, original, finding.getMessage());
+                }
+            }
+            if (isRewritten()) {
+                logger.info("Locator {} rewritten from {} to {}", name, original, by);
+            }
+        }
+    }
+}
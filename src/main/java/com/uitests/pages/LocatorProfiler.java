@@ -0,0 +1,220 @@
+package com.uitests.pages;
+
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long the browser takes to evaluate each {@code @FindBy} locator of a page, on the first web page
+ * every page class is used on. Each locator is evaluated {@code locators.profileIterations} times in one script;
+ * rewritten locators are timed in both forms, so the report shows what the CSS rewrite saves. Results are ranked
+ * slowest first. Enabled with {@code locators.profile=true}.
+ */
+public final class LocatorProfiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocatorProfiler.class);
+
+    private static final String PROFILE_SCRIPT =
+            "if (!/^https?:/.test(location.href)) return null;" +
+            "var queries = arguments[0], iterations = arguments[1], results = [];" +
+            "function resolve(using, value) {" +
+            "  switch (using) {" +
+            "    case 'xpath': return document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;" +
+            "    case 'css selector': return document.querySelectorAll(value).length;" +
+            "    case 'id': return document.getElementById(value) ? 1 : 0;" +
+            "    case 'name': return document.getElementsByName(value).length;" +
+            "    case 'class name': return document.getElementsByClassName(value).length;" +
+            "    case 'tag name': return document.getElementsByTagName(value).length;" +
+            "    default: throw new Error('Unsupported locator strategy: ' + using);" +
+            "  }" +
+            "}" +
+            "queries.forEach(function (q) {" +
+            "  var r = {key: q.key, matches: 0, micros: -1, error: null};" +
+            "  try {" +
+            "    r.matches = resolve(q.using, q.value);" + // Also warms up the engine for this expression
+            "    var start = performance.now();" +
+            "    for (var i = 0; i < iterations; i++) resolve(q.using, q.value);" +
+            "    r.micros = (performance.now() - start) * 1000 / iterations;" +
+            "  } catch (e) {" +
+            "    r.error = String(e.message || e);" +
+            "  }" +
+            "  results.push(r);" +
+            "});" +
+            "return results;";
+
+    private static final Set<Class<?>> profiledPages = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private LocatorProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("locators.profile", false);
+    }
+
+    /**
+     * Times the locators of the page class on the current document, once per class and run.
+     */
+    @SuppressWarnings("unchecked")
+    public static void profile(WebDriver driver, Class<?> page) {
+        if (!profiledPages.add(page)) {
+            return;
+        }
+        List<Map<String, Object>> queries = new ArrayList<>();
+        PageMetadata.of(page).getCompiledLocators().forEach((key, result) -> {
+            addQuery(queries, key, result.getOriginal());
+            if (result.isRewritten()) {
+                addQuery(queries, key + "#css", result.getBy());
+            }
+        });
+        if (queries.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> results;
+        try {
+            results = (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(PROFILE_SCRIPT, queries,
+                    ConfigReader.getIntProperty("locators.profileIterations", 20));
+        } catch (WebDriverException e) {
+            logger.warn("Could not profile the locators of {}: {}", page.getSimpleName(), e.getMessage());
+            return;
+        }
+        if (results == null) {
+            profiledPages.remove(page); // Not a web page yet; profile on the next one
+            return;
+        }
+        Map<String, LocatorCompiler.Result> compiled = PageMetadata.of(page).getCompiledLocators();
+        for (Map<String, Object> measured : results) {
+            String key = (String) measured.get("key");
+            boolean rewrite = key.endsWith("#css");
+            String field = rewrite ? key.substring(0, key.length() - 4) : key;
+            Entry entry = entries.computeIfAbsent(field, k -> new Entry(k, compiled.get(k)));
+            double micros = ((Number) measured.get("micros")).doubleValue();
+            if (rewrite) {
+                entry.rewrittenMicros = micros;
+            } else {
+                entry.micros = micros;
+                entry.matches = ((Number) measured.get("matches")).longValue();
+                entry.error = (String) measured.get("error");
+            }
+        }
+    }
+
+    private static void addQuery(List<Map<String, Object>> queries, String key, By by) {
+        if (by instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+            Map<String, Object> query = new LinkedHashMap<>();
+            query.put("key", key);
+            query.put("using", parameters.using());
+            query.put("value", parameters.value());
+            queries.add(query);
+        }
+    }
+
+    /**
+     * Forgets the measurements, so every page class is profiled again, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        profiledPages.clear();
+        entries.clear();
+    }
+
+    public static boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return One line per locator, slowest evaluation first, with the rewritten form's time and the findings.
+     */
+    public static String summary() {
+        return ranked().stream().map(Entry::toString).collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    /**
+     * Writes the ranked report to {@code locators.report} (default target/locator-profile.json).
+     *
+     * @return The JSON that was written.
+     */
+    public static String export() {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (Entry entry : ranked()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("locator", entry.key);
+            row.put("by", String.valueOf(entry.compiled.getOriginal()));
+            row.put("micros", entry.micros);
+            row.put("matches", entry.matches);
+            if (entry.compiled.isRewritten()) {
+                row.put("rewrittenTo", String.valueOf(entry.compiled.getBy()));
+                row.put("rewrittenMicros", entry.rewrittenMicros);
+            }
+            row.put("findings", entry.compiled.getFindings().stream().map(String::valueOf).collect(Collectors.toList()));
+            if (entry.error != null) {
+                row.put("error", entry.error);
+            }
+            report.add(row);
+        }
+        String json = new Json().toJson(report);
+        Path file = Paths.get(ConfigReader.getProperty("locators.report", "target/locator-profile.json"));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+            logger.info("Locator profile written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write the locator profile to {}: {}", file, e.getMessage());
+        }
+        return json;
+    }
+
+    private static List<Entry> ranked() {
+        List<Entry> ranked = new ArrayList<>(entries.values());
+        ranked.sort(Comparator.comparingDouble((Entry e) -> e.micros).reversed());
+        return ranked;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final LocatorCompiler.Result compiled;
+        private volatile double micros = -1;
+        private volatile double rewrittenMicros = -1;
+        private volatile long matches;
+        private volatile String error;
+
+        private Entry(String key, LocatorCompiler.Result compiled) {
+            this.key = key;
+            this.compiled = compiled;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder line = new StringBuilder(String.format("%-45s %8.1f us, matches=%d", key, micros, matches));
+            if (compiled.isRewritten()) {
+                line.append(String.format(", as CSS %.1f us", rewrittenMicros));
+            }
+            if (error != null) {
+                line.append(", error: ").append(error);
+            }
+            compiled.getFindings().forEach(finding -> line.append("; ").append(finding));
+            return line.toString();
+        }
+    }
+}
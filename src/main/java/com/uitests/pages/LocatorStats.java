@@ -0,0 +1,58 @@
+package com.uitests.pages;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Run-wide per-locator counters: how often a {@code @FindBy} field was served from the element cache and how
+ * often it needed a real findElement round trip.
+ */
+public final class LocatorStats {
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private LocatorStats() {
+    }
+
+    static void recordHit(String locator) {
+        entries.computeIfAbsent(locator, k -> new Entry()).hits.increment();
+    }
+
+    static void recordLookup(String locator) {
+        entries.computeIfAbsent(locator, k -> new Entry()).lookups.increment();
+    }
+
+    /**
+     * Forgets the lookups recorded so far, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        entries.clear();
+    }
+
+    public static boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return One line per locator, ordered by number of lookups.
+     */
+    public static String summary() {
+        return entries.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Entry> e) -> e.getValue().lookups.sum()).reversed())
+                .map(e -> {
+                    long hits = e.getValue().hits.sum();
+                    long lookups = e.getValue().lookups.sum();
+                    return String.format("%s: lookups=%d, cacheHits=%d, hitRate=%.2f",
+                            e.getKey(), lookups, hits, hits + lookups == 0 ? 0.0 : (double) hits / (hits + lookups));
+                })
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private static final class Entry {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder lookups = new LongAdder();
+    }
+}
@@ -0,0 +1,292 @@
+package com.uitests.pages;
+
+import com.uitests.driver.NetworkIdleTracker;
+import com.uitests.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Navigation with an explicit definition of "page ready": DOMContentLoaded, then network idle (from CDP Network
+ * events, or from resource timing entries when CDP is unavailable), then an optional page-object predicate.
+ * Network idle allows a few long-lived requests (analytics beacons, long polls) to stay in flight, and its wait is
+ * capped on its own, so a page that never goes quiet costs at most {@code navigation.idleMaxMillis}; with
+ * {@code navigation.idleMillis=0} the idle wait and its CDP session are skipped altogether.
+ * Each attempt gets its own page load deadline, retries back off exponentially, and all attempts share one
+ * overall budget. Every hop records a {@link NavigationTiming}.
+ */
+public class Navigator {
+
+    private static final Logger logger = LoggerFactory.getLogger(Navigator.class);
+    private static final Queue<NavigationTiming> recordedTimings = new ConcurrentLinkedQueue<>();
+
+    private static final String TIMING_SCRIPT =
+            "var n = performance.getEntriesByType('navigation')[0];" +
+            "if (!n) return null;" +
+            "return {dns: n.domainLookupEnd - n.domainLookupStart, ttfb: n.responseStart - n.requestStart," +
+            "        dcl: n.domContentLoadedEventEnd, load: n.loadEventEnd};";
+
+    // Fallback without CDP: idle once no resource has finished loading for the quiet period
+    private static final String RESOURCE_IDLE_SCRIPT =
+            "var quiet = arguments[0], timeout = arguments[1], done = arguments[arguments.length - 1];" +
+            "var start = performance.now(), last = start;" +
+            "var observer = new PerformanceObserver(function () { last = performance.now(); });" +
+            "observer.observe({entryTypes: ['resource']});" +
+            "var timer = setInterval(function () {" +
+            "  var now = performance.now();" +
+            "  if (now - last >= quiet || now - start >= timeout) {" +
+            "    clearInterval(timer);" +
+            "    observer.disconnect();" +
+            "    done(now - last >= quiet);" +
+            "  }" +
+            "}, 50);";
+
+    private final WebDriver driver;
+    private final int maxAttempts = ConfigReader.getIntProperty("navigation.maxAttempts", 3);
+    private final long attemptTimeoutMillis = TimeUnit.SECONDS.toMillis(ConfigReader.getIntProperty("navigation.attemptTimeoutSeconds", 20));
+    private final long budgetMillis = TimeUnit.SECONDS.toMillis(ConfigReader.getIntProperty("navigation.budgetSeconds", 60));
+    private final long backoffMillis = ConfigReader.getIntProperty("navigation.backoffMillis", 1000);
+    private final long idleQuietMillis = ConfigReader.getIntProperty("navigation.idleMillis", 500);
+    private final int idleMaxInflight = ConfigReader.getIntProperty("navigation.idleMaxInflight", 2);
+    private final long idleMaxMillis = ConfigReader.getIntProperty("navigation.idleMaxMillis", 5000);
+
+    public Navigator(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Loads the URL and waits until the page is ready.
+     *
+     * @param url       The URL to open.
+     * @param readiness Optional page-object readiness check evaluated after network idle, or null.
+     * @return The timing breakdown of the successful attempt.
+     * @throws TimeoutException if no attempt reached DOMContentLoaded within the budget, or the readiness check
+     *                          did not hold before the budget ran out.
+     */
+    public NavigationTiming navigate(String url, Predicate<WebDriver> readiness) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        Duration originalPageLoadTimeout = driver.manage().timeouts().getPageLoadTimeout();
+        int attempt = 0;
+        try {
+            while (true) {
+                attempt++;
+                if (idleQuietMillis > 0) {
+                    NetworkIdleTracker.of(driver).ifPresent(NetworkIdleTracker::reset);
+                }
+                try {
+                    driver.manage().timeouts().pageLoadTimeout(Duration.ofMillis(Math.min(attemptTimeoutMillis, remainingMillis(deadline))));
+                    driver.get(url);
+                    break;
+                } catch (TimeoutException e) {
+                    if (isInteractive()) {
+                        // The load event is stuck on some resource, but the document itself is usable
+                        logger.warn("Load of {} timed out on attempt {}, continuing with the interactive document", url, attempt);
+                        break;
+                    }
+                    long backoff = backoffMillis << (attempt - 1);
+                    if (attempt >= maxAttempts || remainingMillis(deadline) <= backoff) {
+                        throw new TimeoutException("Navigation to " + url + " did not reach DOMContentLoaded after "
+                                + attempt + " attempt(s) within a " + budgetMillis + " ms budget", e);
+                    }
+                    logger.warn("Attempt {} to load {} timed out, retrying in {} ms", attempt, url, backoff);
+                    sleep(backoff);
+                }
+            }
+        } finally {
+            driver.manage().timeouts().pageLoadTimeout(originalPageLoadTimeout);
+        }
+        return awaitReady(url, readiness, start, deadline, attempt);
+    }
+
+    /**
+     * Waits for a navigation triggered by something other than {@link #navigate}, such as a link click, and
+     * records its timing.
+     *
+     * @param label     Name of the hop for the timing record.
+     * @param readiness Optional page-object readiness check, or null.
+     */
+    public NavigationTiming awaitNavigation(String label, Predicate<WebDriver> readiness) {
+        long start = System.nanoTime();
+        return awaitReady(label, readiness, start, start + TimeUnit.MILLISECONDS.toNanos(budgetMillis), 1);
+    }
+
+    /**
+     * @return Every hop recorded in this JVM, in completion order.
+     */
+    public static List<NavigationTiming> getRecordedTimings() {
+        return new ArrayList<>(recordedTimings);
+    }
+
+    /**
+     * Forgets the recorded hops, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        recordedTimings.clear();
+    }
+
+    private NavigationTiming awaitReady(String label, Predicate<WebDriver> readiness, long start, long deadline, int attempts) {
+        new WebDriverWait(driver, Duration.ofMillis(remainingMillis(deadline)))
+                .until(d -> isInteractive());
+        boolean idle = idleQuietMillis <= 0 || awaitNetworkIdle(Math.min(idleMaxMillis, remainingMillis(deadline)));
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (!idle) {
+            logger.warn("Network did not go idle for {} within {} ms, continuing", label, idleMaxMillis);
+        }
+        if (readiness != null) {
+            new WebDriverWait(driver, Duration.ofMillis(remainingMillis(deadline)))
+                    .until(readiness::test);
+        }
+        NavigationTiming timing = collectTiming(label, attempts, idle, idleMillis,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        recordedTimings.add(timing);
+        logger.info("Navigation timing: {}", timing);
+        return timing;
+    }
+
+    private boolean awaitNetworkIdle(long timeoutMillis) {
+        Optional<NetworkIdleTracker> tracker = NetworkIdleTracker.of(driver);
+        try {
+            if (tracker.isPresent()) {
+                return tracker.get().awaitIdle(idleQuietMillis, idleMaxInflight, timeoutMillis);
+            }
+            // Keep well inside the default 30 s script timeout
+            long scriptTimeout = Math.min(timeoutMillis, 25_000);
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeAsyncScript(RESOURCE_IDLE_SCRIPT, idleQuietMillis, scriptTimeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Thread interrupted while waiting for network idle", e);
+            return false;
+        } catch (WebDriverException e) {
+            logger.warn("Could not determine network idle: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private NavigationTiming collectTiming(String label, int attempts, boolean idle, long idleMillis, long totalMillis) {
+        Map<String, Object> raw = null;
+        try {
+            raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+        } catch (WebDriverException e) {
+            logger.warn("Could not read navigation timing for {}: {}", label, e.getMessage());
+        }
+        return new NavigationTiming(label, attempts,
+                millis(raw, "dns"), millis(raw, "ttfb"), millis(raw, "dcl"), millis(raw, "load"),
+                idle, idleMillis, totalMillis);
+    }
+
+    private boolean isInteractive() {
+        try {
+            return !"loading".equals(((JavascriptExecutor) driver).executeScript("return document.readyState;"));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static long millis(Map<String, Object> raw, String key) {
+        if (raw == null || !(raw.get(key) instanceof Number)) {
+            return -1;
+        }
+        return Math.round(((Number) raw.get(key)).doubleValue());
+    }
+
+    private static long remainingMillis(long deadlineNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Thread interrupted during navigation backoff", e);
+        }
+    }
+
+    /**
+     * Timing breakdown of one navigation hop. Browser-side values come from the Navigation Timing entry and are
+     * relative to navigation start; -1 means the value was not available.
+     */
+    public static final class NavigationTiming {
+        private final String label;
+        private final int attempts;
+        private final long dnsMillis;
+        private final long ttfbMillis;
+        private final long domContentLoadedMillis;
+        private final long loadMillis;
+        private final boolean networkIdle;
+        private final long networkIdleMillis;
+        private final long totalMillis;
+
+        NavigationTiming(String label, int attempts, long dnsMillis, long ttfbMillis, long domContentLoadedMillis,
+                         long loadMillis, boolean networkIdle, long networkIdleMillis, long totalMillis) {
+            this.label = label;
+            this.attempts = attempts;
+            this.dnsMillis = dnsMillis;
+            this.ttfbMillis = ttfbMillis;
+            this.domContentLoadedMillis = domContentLoadedMillis;
+            this.loadMillis = loadMillis;
+            this.networkIdle = networkIdle;
+            this.networkIdleMillis = networkIdleMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getDnsMillis() {
+            return dnsMillis;
+        }
+
+        public long getTtfbMillis() {
+            return ttfbMillis;
+        }
+
+        public long getDomContentLoadedMillis() {
+            return domContentLoadedMillis;
+        }
+
+        public long getLoadMillis() {
+            return loadMillis;
+        }
+
+        public boolean isNetworkIdle() {
+            return networkIdle;
+        }
+
+        public long getNetworkIdleMillis() {
+            return networkIdleMillis;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: attempts=%d, dns=%d ms, ttfb=%d ms, dcl=%d ms, load=%d ms, idle=%s at %d ms, total=%d ms",
+                    label, attempts, dnsMillis, ttfbMillis, domContentLoadedMillis, loadMillis,
+                    networkIdle, networkIdleMillis, totalMillis);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.uitests.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What {@code PageFactory.initElements} works out by reflection on every page object, computed once per page
+ * class: the element fields, their locators (annotations are parsed and checked by {@link LocatorCompiler} here,
+ * not per instance) and the no-argument constructor. {@link #wire} then only assigns element proxies; no element is looked up until a field is used.
+ * <p>
+ * Fields are selected as Selenium's {@code DefaultFieldDecorator} selects them: every {@link WebElement} field,
+ * and {@code List<WebElement>} fields annotated with {@link FindBy}, {@link FindBys} or {@link FindAll}.
+ */
+public final class PageMetadata {
+
+    private static final ClassValue<PageMetadata> metadata = new ClassValue<PageMetadata>() {
+        @Override
+        protected PageMetadata computeValue(Class<?> type) {
+            return new PageMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final List<ElementField> fields;
+    private final Map<String, By> locators;
+    private final Map<String, LocatorCompiler.Result> compiled;
+    private final Constructor<?> constructor;
+
+    private PageMetadata(Class<?> type) {
+        this.type = type;
+        List<ElementField> found = new ArrayList<>();
+        Map<String, By> byName = new LinkedHashMap<>();
+        Map<String, LocatorCompiler.Result> compiledLocators = new LinkedHashMap<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                boolean list = isElementList(field);
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())
+                        || !(list || WebElement.class.isAssignableFrom(field.getType()))) {
+                    continue;
+                }
+                field.setAccessible(true);
+                String statsKey = current.getSimpleName() + "." + field.getName();
+                LocatorCompiler.Result result = LocatorCompiler.compile(new Annotations(field).buildBy());
+                result.log(statsKey);
+                compiledLocators.put(statsKey, result);
+                By by = LocatorCompiler.isRewriteEnabled() ? result.getBy() : result.getOriginal();
+                found.add(new ElementField(field, by, list, statsKey));
+                // Subclass fields shadow superclass fields of the same name
+                byName.putIfAbsent(field.getName(), by);
+            }
+        }
+        this.fields = Collections.unmodifiableList(found);
+        this.locators = Collections.unmodifiableMap(byName);
+        this.compiled = Collections.unmodifiableMap(compiledLocators);
+        this.constructor = noArgConstructor(type);
+    }
+
+    public static PageMetadata of(Class<?> type) {
+        return metadata.get(type);
+    }
+
+    /**
+     * Assigns a lazily resolving, caching element proxy to every element field of the page.
+     *
+     * @param page     An instance of the class this metadata describes.
+     * @param locators The page's locator factory; its epoch governs the cached elements.
+     */
+    public void wire(Object page, CachingElementLocatorFactory locators) {
+        ClassLoader loader = page.getClass().getClassLoader();
+        for (ElementField element : fields) {
+            CachingElementLocator locator = locators.createLocator(element.by, element.statsKey);
+            Object proxy = element.list
+                    ? StaleAwareFieldDecorator.listProxy(loader, locator)
+                    : StaleAwareFieldDecorator.elementProxy(loader, locator);
+            try {
+                element.field.set(page, proxy);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot wire " + element.statsKey, e);
+            }
+        }
+    }
+
+    /**
+     * @return The locator of the named element field, or null if the class has no such field.
+     */
+    public By locatorOf(String fieldName) {
+        return locators.get(fieldName);
+    }
+
+    /**
+     * @return What {@link LocatorCompiler} found for each element field, keyed like {@link LocatorStats}
+     * ("HomePage.productsMenuButton").
+     */
+    public Map<String, LocatorCompiler.Result> getCompiledLocators() {
+        return compiled;
+    }
+
+    public int getElementFieldCount() {
+        return fields.size();
+    }
+
+    /**
+     * Creates an instance through the cached no-argument constructor.
+     */
+    Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException(type.getSimpleName() + " has no no-argument constructor");
+        }
+        try {
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Could not create " + type.getSimpleName(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + type.getSimpleName(), e);
+        }
+    }
+
+    private static boolean isElementList(Field field) {
+        if (!List.class.isAssignableFrom(field.getType())) {
+            return false;
+        }
+        Type generic = field.getGenericType();
+        if (!(generic instanceof ParameterizedType)
+                || ((ParameterizedType) generic).getActualTypeArguments()[0] != WebElement.class) {
+            return false;
+        }
+        return field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                || field.isAnnotationPresent(FindAll.class);
+    }
+
+    private static Constructor<?> noArgConstructor(Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static final class ElementField {
+        private final Field field;
+        private final By by;
+        private final boolean list;
+        private final String statsKey;
+
+        private ElementField(Field field, By by, boolean list, String statsKey) {
+            this.field = field;
+            this.by = by;
+            this.list = list;
+            this.statsKey = statsKey;
+        }
+    }
+}
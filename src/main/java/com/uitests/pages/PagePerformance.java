@@ -0,0 +1,282 @@
+package com.uitests.pages;
+
+import com.uitests.driver.DevToolsSession;
+import com.uitests.driver.NetworkIdleTracker;
+import com.uitests.utils.ConfigReader;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Status;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Browser-side performance of every document a page object is built on: Navigation Timing, paint and LCP, long
+ * tasks and transfer size from one script, plus CDP {@code Performance.getMetrics} where available. Each
+ * document is measured once, by the first page object constructed on it after a navigation or tab switch, so
+ * paint values are those reached by the time the test starts using the page.
+ * <p>
+ * Transfer size comes from CDP where the session's {@link NetworkIdleTracker} saw the document's navigation
+ * request: the sum of {@code encodedDataLength} of the document and its requests. Otherwise it is the Resource
+ * Timing {@code transferSize} sum, which is a lower bound: cross-origin responses without
+ * {@code Timing-Allow-Origin} count as 0. Either way, requests still in flight are not included.
+ * <p>
+ * Results are checked against the page's {@link PerformanceBudget} and aggregated per page class for the run.
+ * Enabled with {@code perf.enabled=true}.
+ */
+public final class PagePerformance {
+
+    private static final Logger logger = LoggerFactory.getLogger(PagePerformance.class);
+
+    // Buffered observers hand out entries recorded before they were created through takeRecords()
+    private static final String METRICS_SCRIPT =
+            "var known = arguments[0];" +
+            "if (!/^https?:/.test(location.href) || performance.timeOrigin === known) return null;" +
+            "var nav = performance.getEntriesByType('navigation')[0] || {};" +
+            "var r = {timeOrigin: performance.timeOrigin, url: location.href," +
+            "         ttfb: nav.responseStart ? nav.responseStart - nav.requestStart : -1," +
+            "         dcl: nav.domContentLoadedEventEnd || -1, load: nav.loadEventEnd || -1," +
+            "         fcp: -1, lcp: -1, longTasks: 0, tbt: 0, transfer: nav.transferSize || 0, resources: 0};" +
+            "performance.getEntriesByType('paint').forEach(function (p) {" +
+            "  if (p.name === 'first-contentful-paint') r.fcp = p.startTime;" +
+            "});" +
+            "performance.getEntriesByType('resource').forEach(function (e) {" +
+            "  r.transfer += e.transferSize || 0; r.resources++;" +
+            "});" +
+            "function buffered(type, each) {" +
+            "  try {" +
+            "    var observer = new PerformanceObserver(function () {});" +
+            "    observer.observe({type: type, buffered: true});" +
+            "    observer.takeRecords().forEach(each);" +
+            "    observer.disconnect();" +
+            "  } catch (e) { /* entry type not supported by this browser */ }" +
+            "}" +
+            "buffered('largest-contentful-paint', function (e) { r.lcp = e.renderTime || e.loadTime || e.startTime; });" +
+            "buffered('longtask', function (e) { r.longTasks++; r.tbt += Math.max(0, e.duration - 50); });" +
+            "return r;";
+
+    private static final List<String> CDP_METRICS = Arrays.asList(
+            "JSHeapUsedSize", "Nodes", "LayoutCount", "RecalcStyleCount", "ScriptDuration", "TaskDuration");
+
+    // Time origin of the document last measured per session, so rebuilt page objects do not measure it again
+    private static final Map<WebDriver, Double> measuredDocuments = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, Map<String, Histogram>> pages = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> breaches = new ConcurrentHashMap<>();
+
+    private PagePerformance() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("perf.enabled", false);
+    }
+
+    /**
+     * Measures the current document if it has not been measured yet, records it for the page class and checks the
+     * class's budget.
+     *
+     * @return The metrics, or null if the document was already measured or is not a web page.
+     * @throws AssertionError if a hard budget of the page is exceeded.
+     */
+    public static Map<String, Number> record(WebDriver driver, Class<?> page) {
+        WebDriver raw = DevToolsSession.unwrap(driver);
+        Map<String, Number> metrics = measure(driver, measuredDocuments.get(raw));
+        if (metrics == null) {
+            return null;
+        }
+        measuredDocuments.put(raw, metrics.get("timeOrigin").doubleValue());
+        String name = page.getSimpleName();
+        Map<String, Histogram> histograms = pages.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+        metrics.forEach((metric, value) -> {
+            if (!"timeOrigin".equals(metric) && value.doubleValue() >= 0) {
+                histograms.computeIfAbsent(metric, k -> new ConcurrentHistogram(3)).recordValue(Math.round(value.doubleValue()));
+            }
+        });
+        logger.info("Page performance [{}]: {}", name, metrics);
+        checkBudget(name, page.getAnnotation(PerformanceBudget.class), metrics);
+        return metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Number> measure(WebDriver driver, Double knownTimeOrigin) {
+        Map<String, Object> raw;
+        try {
+            raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(METRICS_SCRIPT, knownTimeOrigin);
+        } catch (WebDriverException e) {
+            logger.warn("Could not read page performance: {}", e.getMessage());
+            return null;
+        }
+        if (raw == null) {
+            return null;
+        }
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("timeOrigin", (Number) raw.get("timeOrigin"));
+        metrics.put("ttfbMs", (Number) raw.get("ttfb"));
+        metrics.put("fcpMs", (Number) raw.get("fcp"));
+        metrics.put("lcpMs", (Number) raw.get("lcp"));
+        metrics.put("domContentLoadedMs", (Number) raw.get("dcl"));
+        metrics.put("loadMs", (Number) raw.get("load"));
+        metrics.put("longTasks", (Number) raw.get("longTasks"));
+        metrics.put("totalBlockingMs", (Number) raw.get("tbt"));
+        metrics.put("transferBytes", (Number) raw.get("transfer"));
+        metrics.put("resources", (Number) raw.get("resources"));
+        DevToolsSession.of(driver).ifPresent(devTools -> {
+            try {
+                devTools.enable("Performance");
+                List<Map<String, Object>> cdp = (List<Map<String, Object>>) devTools.send("Performance.getMetrics", Collections.emptyMap()).get("metrics");
+                for (Map<String, Object> metric : cdp) {
+                    String name = String.valueOf(metric.get("name"));
+                    double value = ((Number) metric.get("value")).doubleValue();
+                    if (name.endsWith("Duration") && CDP_METRICS.contains(name)) {
+                        metrics.put("cdp." + name + "Ms", value * 1000); // Reported in seconds
+                    } else if (CDP_METRICS.contains(name)) {
+                        metrics.put("cdp." + name, value);
+                    }
+                }
+            } catch (WebDriverException e) {
+                logger.debug("Performance.getMetrics is not available: {}", e.getMessage());
+            }
+            NetworkIdleTracker.of(driver)
+                    .flatMap(tracker -> mainFrameLoaderId(devTools).map(tracker::transferredBytes))
+                    .filter(OptionalLong::isPresent)
+                    .ifPresent(bytes -> metrics.put("transferBytes", bytes.getAsLong()));
+        });
+        return metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<String> mainFrameLoaderId(DevToolsSession devTools) {
+        try {
+            Object tree = devTools.send("Page.getFrameTree", Collections.emptyMap()).get("frameTree");
+            Object frame = tree instanceof Map ? ((Map<String, Object>) tree).get("frame") : null;
+            return frame instanceof Map
+                    ? Optional.ofNullable((String) ((Map<String, Object>) frame).get("loaderId"))
+                    : Optional.empty();
+        } catch (WebDriverException e) {
+            logger.debug("Page.getFrameTree is not available: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void checkBudget(String page, PerformanceBudget budget, Map<String, Number> metrics) {
+        if (budget == null) {
+            return;
+        }
+        List<String> exceeded = new ArrayList<>();
+        check(exceeded, "LCP", metrics.get("lcpMs"), budget.lcpMillis(), "ms");
+        check(exceeded, "FCP", metrics.get("fcpMs"), budget.fcpMillis(), "ms");
+        check(exceeded, "DOMContentLoaded", metrics.get("domContentLoadedMs"), budget.domContentLoadedMillis(), "ms");
+        check(exceeded, "load", metrics.get("loadMs"), budget.loadMillis(), "ms");
+        check(exceeded, "transfer", metrics.get("transferBytes"), budget.transferBytes(), "bytes");
+        check(exceeded, "total blocking time", metrics.get("totalBlockingMs"), budget.totalBlockingMillis(), "ms");
+        if (exceeded.isEmpty()) {
+            return;
+        }
+        String message = "Performance budget of " + page + " exceeded: " + String.join(", ", exceeded);
+        breaches.computeIfAbsent(page, k -> new LongAdder()).increment();
+        if (budget.hard()) {
+            throw new AssertionError(message);
+        }
+        logger.warn(message);
+        Allure.step(message, Status.FAILED);
+    }
+
+    private static void check(List<String> exceeded, String metric, Number value, long limit, String unit) {
+        // Unbudgeted, or not reported by this browser
+        if (limit < 0 || value == null || value.doubleValue() < 0) {
+            return;
+        }
+        if (value.doubleValue() > limit) {
+            exceeded.add(String.format("%s %d %s > %d %s", metric, Math.round(value.doubleValue()), unit, limit, unit));
+        }
+    }
+
+    /**
+     * Forgets the measurements and breaches recorded so far, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        measuredDocuments.clear();
+        pages.clear();
+        breaches.clear();
+    }
+
+    public static boolean isEmpty() {
+        return pages.isEmpty();
+    }
+
+    /**
+     * Writes the per-page aggregates (count, p50, p95, max per metric, budget breaches) to {@code perf.file}
+     * (default target/page-performance.json).
+     *
+     * @return The JSON that was written.
+     */
+    public static String export() {
+        Map<String, Object> document = new TreeMap<>();
+        pages.forEach((page, histograms) -> {
+            Map<String, Object> entry = new TreeMap<>();
+            histograms.forEach((metric, histogram) -> {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", histogram.getTotalCount());
+                stats.put("p50", histogram.getValueAtPercentile(50));
+                stats.put("p95", histogram.getValueAtPercentile(95));
+                stats.put("max", histogram.getMaxValue());
+                entry.put(metric, stats);
+            });
+            LongAdder breached = breaches.get(page);
+            entry.put("budgetBreaches", breached == null ? 0 : breached.sum());
+            document.put(page, entry);
+        });
+        String json = new Json().toJson(document);
+        Path file = Paths.get(ConfigReader.getProperty("perf.file", "target/page-performance.json"));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+            logger.info("Page performance written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write page performance to {}: {}", file, e.getMessage());
+        }
+        return json;
+    }
+
+    /**
+     * @return One line per page with p95 LCP, load, transfer size and total blocking time, and the budget breaches.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        new TreeMap<>(pages).forEach((page, histograms) -> {
+            LongAdder breached = breaches.get(page);
+            summary.append(String.format("  %-24s measured=%d, p95 lcp=%s ms, load=%s ms, transfer=%s KB, tbt=%s ms, budgetBreaches=%d%n",
+                    page, histograms.get("transferBytes").getTotalCount(), p95(histograms.get("lcpMs"), 1),
+                    p95(histograms.get("loadMs"), 1), p95(histograms.get("transferBytes"), 1024),
+                    p95(histograms.get("totalBlockingMs"), 1), breached == null ? 0 : breached.sum()));
+        });
+        return summary.toString();
+    }
+
+    private static String p95(Histogram histogram, long divisor) {
+        return histogram == null ? "-" : String.valueOf(histogram.getValueAtPercentile(95) / divisor);
+    }
+}
@@ -0,0 +1,103 @@
+package com.uitests.pages;
+
+import com.uitests.driver.DevToolsSession;
+import com.uitests.driver.DriverManager;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out page objects for the current test's session and window, creating each page class at most once per
+ * window instead of re-running construction (field wiring, wait setup) on every {@code new}. A reused page drops
+ * its cached elements, which belong to the document it was last used on, and the per-document work of the
+ * constructor (full-load wait, lean load report, performance measurement) runs again.
+ * <p>
+ * Pages are kept per driver view: the test's driver, or a tab-bound driver of a
+ * {@link com.uitests.driver.TabExecutor}, which stays in its own tab. The window is not asked for on every
+ * {@link #get}, which would cost a round trip: only switches through {@link BasePage#switchToNewestTab()} are
+ * tracked and drop the view's pages. A test that switches windows with {@code driver.switchTo()} directly gets the
+ * previous window's instances back, with empty element caches. Releasing the session drops all its pages.
+ */
+public final class PageRegistry {
+
+    // Per session; inside, per driver view (by identity, as tab-bound drivers compare equal to their session)
+    private static final Map<WebDriver, Map<WebDriver, Map<Class<?>, BasePage>>> sessions =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final LongAdder created = new LongAdder();
+    private static final LongAdder reused = new LongAdder();
+
+    static {
+        DriverManager.addReleaseListener(driver -> sessions.remove(DevToolsSession.unwrap(driver)));
+    }
+
+    private PageRegistry() {
+    }
+
+    /**
+     * @return The page of the given class for the current session and window, created if there is none yet.
+     */
+    public static <T extends BasePage> T get(Class<T> pageClass) {
+        WebDriver driver = DriverManager.getDriver();
+        Map<Class<?>, BasePage> pages = pagesOf(driver);
+        BasePage page;
+        synchronized (pages) {
+            page = pages.get(pageClass);
+        }
+        if (page != null) {
+            reused.increment();
+            page.invalidateElementCache();
+            page.prepareForUse();
+            return pageClass.cast(page);
+        }
+        T fresh = pageClass.cast(PageMetadata.of(pageClass).newInstance());
+        created.increment();
+        synchronized (pages) {
+            pages.put(pageClass, fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Forgets the pages of the given driver view, whose window is no longer the one they were built on.
+     */
+    static void windowChanged(WebDriver driver) {
+        Map<WebDriver, Map<Class<?>, BasePage>> views = sessions.get(DevToolsSession.unwrap(driver));
+        if (views != null) {
+            synchronized (views) {
+                views.remove(driver);
+            }
+        }
+    }
+
+    private static Map<Class<?>, BasePage> pagesOf(WebDriver driver) {
+        Map<WebDriver, Map<Class<?>, BasePage>> views;
+        synchronized (sessions) {
+            views = sessions.computeIfAbsent(DevToolsSession.unwrap(driver), k -> new IdentityHashMap<>());
+        }
+        synchronized (views) {
+            return views.computeIfAbsent(driver, k -> new HashMap<>());
+        }
+    }
+
+    /**
+     * Forgets all pages and counts, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        sessions.clear();
+        created.reset();
+        reused.reset();
+    }
+
+    public static String summary() {
+        return String.format("created=%d, reused=%d", created.sum(), reused.sum());
+    }
+
+    public static boolean isEmpty() {
+        return created.sum() == 0;
+    }
+}
@@ -0,0 +1,223 @@
+package com.uitests.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Typed view of page state read in a single {@code executeScript} call: URL, title and, for every requested
+ * locator, whether it matches, its visible text, visibility, enabled state and focus. Replaces sequences of
+ * getCurrentUrl / getTitle / isDisplayed / isEnabled / getText / activeElement round trips.
+ */
+public final class PageSnapshot {
+
+    private static final String SNAPSHOT_SCRIPT =
+            "var queries = arguments[0], result = {url: location.href, title: document.title, elements: {}};" +
+            "function visible(el) {" +
+            "  if (!el || !el.isConnected) return false;" +
+            "  var style = window.getComputedStyle(el);" +
+            "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse'" +
+            "      || parseFloat(style.opacity) === 0) return false;" +
+            "  var rect = el.getBoundingClientRect();" +
+            "  return rect.width > 0 && rect.height > 0;" +
+            "}" +
+            "function cssEscape(v) { return window.CSS && CSS.escape ? CSS.escape(v) : v; }" +
+            "function resolve(using, value) {" +
+            "  switch (using) {" +
+            "    case 'xpath':" +
+            "      var snap = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "      var nodes = [];" +
+            "      for (var i = 0; i < snap.snapshotLength; i++) nodes.push(snap.snapshotItem(i));" +
+            "      return nodes;" +
+            "    case 'css selector': return Array.prototype.slice.call(document.querySelectorAll(value));" +
+            "    case 'id': return Array.prototype.slice.call(document.querySelectorAll('#' + cssEscape(value)));" +
+            "    case 'name': return Array.prototype.slice.call(document.getElementsByName(value));" +
+            "    case 'class name': return Array.prototype.slice.call(document.getElementsByClassName(value));" +
+            "    case 'tag name': return Array.prototype.slice.call(document.getElementsByTagName(value));" +
+            "    case 'link text':" +
+            "    case 'partial link text':" +
+            "      return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {" +
+            "        var text = (a.innerText || '').trim();" +
+            "        return using === 'link text' ? text === value : text.indexOf(value) >= 0;" +
+            "      });" +
+            "    default: throw new Error('Unsupported locator strategy: ' + using);" +
+            "  }" +
+            "}" +
+            "queries.forEach(function (q) {" +
+            "  var state = {present: false, count: 0, visible: false, enabled: false, focused: false, text: '', error: null};" +
+            "  try {" +
+            "    var nodes = resolve(q.using, q.value);" +
+            "    state.count = nodes.length;" +
+            "    if (nodes.length > 0) {" +
+            "      var el = nodes[0];" +
+            "      state.present = true;" +
+            "      state.visible = visible(el);" +
+            "      state.enabled = !el.disabled;" +
+            "      state.focused = el === document.activeElement;" +
+            "      state.text = state.visible ? (el.innerText || el.value || '').trim() : '';" +
+            "    }" +
+            "  } catch (e) {" +
+            "    state.error = String(e.message || e);" +
+            "  }" +
+            "  result.elements[q.name] = state;" +
+            "});" +
+            "return result;";
+
+    private final String url;
+    private final String title;
+    private final Map<String, ElementState> elements;
+
+    private PageSnapshot(String url, String title, Map<String, ElementState> elements) {
+        this.url = url;
+        this.title = title;
+        this.elements = Collections.unmodifiableMap(elements);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @param name The name the locator was registered under.
+     * @return The state of the first element matching that locator.
+     * @throws IllegalArgumentException if no locator was registered under that name.
+     */
+    public ElementState element(String name) {
+        ElementState state = elements.get(name);
+        if (state == null) {
+            throw new IllegalArgumentException("No locator named '" + name + "' was part of this snapshot. Known: " + elements.keySet());
+        }
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        return "PageSnapshot{url=" + url + ", title=" + title + ", elements=" + elements + "}";
+    }
+
+    /**
+     * Collects named locators and reads them all in one round trip.
+     */
+    public static final class Builder {
+        private final WebDriver driver;
+        private final Function<String, By> fieldResolver;
+        private final Map<String, By> locators = new LinkedHashMap<>();
+
+        Builder(WebDriver driver, Function<String, By> fieldResolver) {
+            this.driver = driver;
+            this.fieldResolver = fieldResolver;
+        }
+
+        /**
+         * Adds the locator declared by a {@code @FindBy} field of the page, under the field's name.
+         */
+        public Builder field(String fieldName) {
+            locators.put(fieldName, fieldResolver.apply(fieldName));
+            return this;
+        }
+
+        /**
+         * Adds an arbitrary locator under the given name.
+         */
+        public Builder locator(String name, By by) {
+            locators.put(name, by);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public PageSnapshot take() {
+            List<Map<String, Object>> queries = new ArrayList<>();
+            locators.forEach((name, by) -> {
+                if (!(by instanceof By.Remotable)) {
+                    throw new IllegalArgumentException("Locator '" + name + "' cannot be evaluated in the browser: " + by);
+                }
+                By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+                Map<String, Object> query = new HashMap<>();
+                query.put("name", name);
+                query.put("using", parameters.using());
+                query.put("value", parameters.value());
+                queries.add(query);
+            });
+
+            Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, queries);
+            Map<String, Object> rawElements = (Map<String, Object>) raw.get("elements");
+            Map<String, ElementState> elements = new LinkedHashMap<>();
+            for (String name : locators.keySet()) {
+                elements.put(name, new ElementState((Map<String, Object>) rawElements.get(name)));
+            }
+            return new PageSnapshot(String.valueOf(raw.get("url")), String.valueOf(raw.get("title")), elements);
+        }
+    }
+
+    /**
+     * State of the first element matched by one locator.
+     */
+    public static final class ElementState {
+        private final boolean present;
+        private final long count;
+        private final boolean visible;
+        private final boolean enabled;
+        private final boolean focused;
+        private final String text;
+        private final String error;
+
+        private ElementState(Map<String, Object> raw) {
+            this.present = Boolean.TRUE.equals(raw.get("present"));
+            this.count = ((Number) raw.get("count")).longValue();
+            this.visible = Boolean.TRUE.equals(raw.get("visible"));
+            this.enabled = Boolean.TRUE.equals(raw.get("enabled"));
+            this.focused = Boolean.TRUE.equals(raw.get("focused"));
+            this.text = String.valueOf(raw.get("text"));
+            this.error = (String) raw.get("error");
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public boolean isVisible() {
+            return visible;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isFocused() {
+            return focused;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return The browser's error message if the locator could not be evaluated (e.g. invalid XPath), else null.
+         */
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{present=%s, count=%d, visible=%s, enabled=%s, focused=%s, text='%s'%s}",
+                    present, count, visible, enabled, focused, text, error == null ? "" : ", error=" + error);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.uitests.pages;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Front-end performance budget of a page object, checked by {@link PagePerformance} every time a new document is
+ * measured for the page. A limit of -1 means "no budget". Soft budgets are reported on the test (log and Allure
+ * step); hard budgets fail it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PerformanceBudget {
+
+    /** Largest Contentful Paint. */
+    long lcpMillis() default -1;
+
+    /** First Contentful Paint. */
+    long fcpMillis() default -1;
+
+    /** End of the DOMContentLoaded handlers. */
+    long domContentLoadedMillis() default -1;
+
+    /** End of the load event handlers. */
+    long loadMillis() default -1;
+
+    /** Bytes transferred for the document and all its resources. */
+    long transferBytes() default -1;
+
+    /** Sum of the time long tasks exceeded 50 ms (total blocking time). */
+    long totalBlockingMillis() default -1;
+
+    /** Fail the test instead of only reporting the breach. */
+    boolean hard() default false;
+}
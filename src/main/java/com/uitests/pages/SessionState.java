@@ -0,0 +1,225 @@
+package com.uitests.pages;
+
+import com.uitests.driver.DevToolsSession;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of a browser session after some setup: URL, cookies of all domains, and the localStorage and
+ * sessionStorage of the page's origin. Restoring it into another session (fresh or pooled) takes a single
+ * navigation on Chromium, where cookies go in through CDP and storage is seeded before the page's own scripts
+ * run; other browsers need a second load.
+ */
+public final class SessionState {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionState.class);
+
+    private static final String CAPTURE_SCRIPT =
+            "function dump(storage) {" +
+            "  var entries = {};" +
+            "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); entries[key] = storage.getItem(key); }" +
+            "  return entries;" +
+            "}" +
+            "return {url: location.href, origin: location.origin, local: dump(localStorage), session: dump(sessionStorage)};";
+
+    private static final String STORAGE_SCRIPT =
+            "(function (origin, local, session) {" +
+            "  if (location.origin !== origin) return;" +
+            "  try {" +
+            "    Object.keys(local).forEach(function (k) { localStorage.setItem(k, local[k]); });" +
+            "    Object.keys(session).forEach(function (k) { sessionStorage.setItem(k, session[k]); });" +
+            "  } catch (e) {}" +
+            "})(%s, %s, %s);";
+
+    // Fields of Network.getAllCookies results that Network.setCookies accepts
+    private static final List<String> COOKIE_PARAMS = Arrays.asList("name", "value", "domain", "path", "secure", "httpOnly", "sameSite");
+
+    // States captured in this run, by key; a pending future means another thread is running the setup
+    private static final Map<String, CompletableFuture<SessionState>> runCache = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final String origin;
+    private final List<Map<String, Object>> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+
+    private SessionState(String url, String origin, List<Map<String, Object>> cookies,
+                         Map<String, String> localStorage, Map<String, String> sessionStorage) {
+        this.url = url;
+        this.origin = origin;
+        this.cookies = Collections.unmodifiableList(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+        this.sessionStorage = Collections.unmodifiableMap(sessionStorage);
+    }
+
+    /**
+     * Captures the state of the driver's current window.
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionState capture(WebDriver driver) {
+        Map<String, Object> page = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        Optional<DevToolsSession> devTools = DevToolsSession.of(driver);
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        if (devTools.isPresent()) {
+            for (Map<String, Object> cookie : (List<Map<String, Object>>) devTools.get().send("Network.getAllCookies", Collections.emptyMap()).get("cookies")) {
+                Map<String, Object> param = new HashMap<>();
+                COOKIE_PARAMS.stream().filter(cookie::containsKey).forEach(field -> param.put(field, cookie.get(field)));
+                if (!Boolean.TRUE.equals(cookie.get("session"))) {
+                    param.put("expires", cookie.get("expires"));
+                }
+                cookies.add(param);
+            }
+        } else {
+            for (Cookie cookie : driver.manage().getCookies()) {
+                Map<String, Object> param = new HashMap<>(cookie.toJson());
+                param.remove("expiry");
+                if (cookie.getExpiry() != null) {
+                    param.put("expires", cookie.getExpiry().getTime() / 1000.0);
+                }
+                cookies.add(param);
+            }
+        }
+        return new SessionState(String.valueOf(page.get("url")), String.valueOf(page.get("origin")), cookies,
+                (Map<String, String>) page.get("local"), (Map<String, String>) page.get("session"));
+    }
+
+    /**
+     * Brings the driver's current window to this state, ending on the captured URL.
+     */
+    public void restoreInto(WebDriver driver) {
+        Optional<DevToolsSession> session = DevToolsSession.of(driver);
+        if (session.isPresent()) {
+            DevToolsSession devTools = session.get();
+            if (!cookies.isEmpty()) {
+                devTools.send("Network.setCookies", Collections.singletonMap("cookies", cookies));
+            }
+            String identifier = null;
+            if (!localStorage.isEmpty() || !sessionStorage.isEmpty()) {
+                Json json = new Json();
+                String source = String.format(STORAGE_SCRIPT, json.toJson(origin), json.toJson(localStorage), json.toJson(sessionStorage));
+                identifier = String.valueOf(devTools.send("Page.addScriptToEvaluateOnNewDocument",
+                        Collections.singletonMap("source", source)).get("identifier"));
+            }
+            try {
+                driver.get(url);
+            } finally {
+                if (identifier != null) {
+                    devTools.send("Page.removeScriptToEvaluateOnNewDocument", Collections.singletonMap("identifier", identifier));
+                }
+            }
+            return;
+        }
+        // Without CDP, cookies and storage can only be set on a page of their origin
+        driver.get(url);
+        for (Map<String, Object> cookie : cookies) {
+            try {
+                driver.manage().addCookie(toSeleniumCookie(cookie));
+            } catch (WebDriverException e) {
+                logger.debug("Could not restore cookie {} for {}: {}", cookie.get("name"), cookie.get("domain"), e.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "var local = arguments[0], session = arguments[1];" +
+                "Object.keys(local).forEach(function (k) { localStorage.setItem(k, local[k]); });" +
+                "Object.keys(session).forEach(function (k) { sessionStorage.setItem(k, session[k]); });",
+                localStorage, sessionStorage);
+        driver.navigate().refresh();
+    }
+
+    /**
+     * Forgets the states cached for this run, e.g. before another run in the same JVM.
+     */
+    public static void resetRunCache() {
+        runCache.clear();
+    }
+
+    /**
+     * Returns the state cached under the key for this run, running {@code setup} and capturing its result the
+     * first time. Concurrent callers with the same key wait for the first one instead of repeating the setup.
+     *
+     * @param key    Name of the setup, e.g. "cdro-page".
+     * @param driver The session that runs the setup if it has not run yet.
+     * @param setup  The navigation that reaches the state.
+     * @return The state, and whether this call ran the setup (in which case the driver is already in it).
+     */
+    static Cached cached(String key, WebDriver driver, Runnable setup) {
+        while (true) {
+            CompletableFuture<SessionState> mine = new CompletableFuture<>();
+            CompletableFuture<SessionState> existing = runCache.putIfAbsent(key, mine);
+            if (existing == null) {
+                try {
+                    setup.run();
+                    SessionState state = capture(driver);
+                    mine.complete(state);
+                    logger.info("Captured session state '{}' at {}", key, state.url);
+                    return new Cached(state, true);
+                } catch (RuntimeException | Error e) {
+                    // Let the next caller try the setup again
+                    runCache.remove(key, mine);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                return new Cached(existing.join(), false);
+            } catch (CompletionException e) {
+                logger.warn("Setup of session state '{}' failed in another test, running it here", key);
+            }
+        }
+    }
+
+    private static Cookie toSeleniumCookie(Map<String, Object> cookie) {
+        Cookie.Builder builder = new Cookie.Builder(String.valueOf(cookie.get("name")), String.valueOf(cookie.get("value")))
+                .domain((String) cookie.get("domain"))
+                .path((String) cookie.get("path"))
+                .isSecure(Boolean.TRUE.equals(cookie.get("secure")))
+                .isHttpOnly(Boolean.TRUE.equals(cookie.get("httpOnly")));
+        if (cookie.get("expires") instanceof Number) {
+            builder.expiresOn(new Date((long) (((Number) cookie.get("expires")).doubleValue() * 1000)));
+        }
+        return builder.build();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public List<Map<String, Object>> getCookies() {
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    static final class Cached {
+        final SessionState state;
+        final boolean capturedHere;
+
+        private Cached(SessionState state, boolean capturedHere) {
+            this.state = state;
+            this.capturedHere = capturedHere;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.uitests.pages;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementListHandler;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Field decorator whose element proxies re-resolve a cached element once when a call fails with
+ * {@link StaleElementReferenceException}, i.e. when the DOM node behind the cache was replaced.
+ * <p>
+ * When a proxy is passed to a script or a wait condition it is unwrapped to the cached element without a round
+ * trip, so a stale cache surfaces there as the exception itself; callers that retry such calls, like the
+ * {@link DomConditions} element waits, drop the cache first with {@link #invalidate(WebElement)}.
+ */
+public class StaleAwareFieldDecorator extends DefaultFieldDecorator {
+
+    public StaleAwareFieldDecorator(ElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        return elementProxy(loader, locator);
+    }
+
+    static WebElement elementProxy(ClassLoader loader, ElementLocator locator) {
+        return (WebElement) Proxy.newProxyInstance(loader,
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new StaleAwareElementHandler(locator));
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<WebElement> listProxy(ClassLoader loader, ElementLocator locator) {
+        return (List<WebElement>) Proxy.newProxyInstance(loader, new Class<?>[]{List.class}, new LocatingElementListHandler(locator));
+    }
+
+    /**
+     * Drops the element cached behind a field proxy, so its next use or unwrap finds the element again.
+     * Does nothing for elements that are not caching proxies.
+     *
+     * @return Whether the element was a caching proxy, i.e. whether a retry can resolve a different element.
+     */
+    static boolean invalidate(WebElement element) {
+        if (element != null && Proxy.isProxyClass(element.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(element);
+            if (handler instanceof StaleAwareElementHandler
+                    && ((StaleAwareElementHandler) handler).locator instanceof CachingElementLocator) {
+                ((CachingElementLocator) ((StaleAwareElementHandler) handler).locator).invalidate();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class StaleAwareElementHandler implements InvocationHandler {
+        private final ElementLocator locator;
+
+        private StaleAwareElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getWrappedElement".equals(method.getName())) {
+                return locator.findElement();
+            }
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException) || !(locator instanceof CachingElementLocator)) {
+                    throw e.getCause();
+                }
+                ((CachingElementLocator) locator).invalidate();
+                try {
+                    return method.invoke(locator.findElement(), args);
+                } catch (InvocationTargetException retryFailure) {
+                    throw retryFailure.getCause();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.uitests.pages;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Run-wide record of how long the event-driven waits actually took compared with the fixed sleeps they replaced.
+ */
+public final class WaitStats {
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private WaitStats() {
+    }
+
+    /**
+     * @param step           Page class and wait site, e.g. "DocumentationPage: search results".
+     * @param replacedMillis Duration of the fixed sleep this wait replaced.
+     * @param actualMillis   Time the wait actually took.
+     */
+    public static void record(String step, long replacedMillis, long actualMillis) {
+        Entry entry = entries.computeIfAbsent(step, k -> new Entry());
+        entry.count.increment();
+        entry.actualMillis.add(actualMillis);
+        entry.savedMillis.add(replacedMillis - actualMillis);
+    }
+
+    public static long getTotalSavedMillis() {
+        return entries.values().stream().mapToLong(e -> e.savedMillis.sum()).sum();
+    }
+
+    /**
+     * Forgets the waits recorded so far, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        entries.clear();
+    }
+
+    /**
+     * @return One line per wait site, ordered by time saved, or an empty string if nothing was recorded.
+     */
+    public static String summary() {
+        return entries.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Entry> e) -> e.getValue().savedMillis.sum()).reversed())
+                .map(e -> String.format("%s: waits=%d, actualMs=%d, savedMs=%d",
+                        e.getKey(), e.getValue().count.sum(), e.getValue().actualMillis.sum(), e.getValue().savedMillis.sum()))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder actualMillis = new LongAdder();
+        private final LongAdder savedMillis = new LongAdder();
+    }
+}
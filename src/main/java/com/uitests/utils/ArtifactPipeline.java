@@ -0,0 +1,255 @@
+package com.uitests.utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Failure artifacts (screenshot, DOM snapshot, browser log) captured without holding the test thread for the
+ * expensive part. The test thread only pulls the raw bytes out of the browser and registers the Allure
+ * attachments; JPEG encoding, content-hash dedup and writing happen on a bounded background executor.
+ * <ul>
+ *     <li>Backpressure: when {@code artifacts.queueSize} jobs are waiting, the test thread does the work itself.</li>
+ *     <li>Dedup: an artifact identical to an earlier one of the run is hard-linked instead of written again.</li>
+ *     <li>Quota: once {@code artifacts.quotaMb} of unique artifacts have been written, further artifacts of the
+ *     run are dropped.</li>
+ * </ul>
+ * Call {@link #awaitCompletion} before the run ends so every registered attachment has its file.
+ */
+public final class ArtifactPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactPipeline.class);
+
+    private static final ThreadPoolExecutor executor = createExecutor();
+    private static final Map<String, Path> writtenByHash = new ConcurrentHashMap<>();
+    private static final AtomicLong reservedBytes = new AtomicLong();
+    private static final LongAdder written = new LongAdder();
+    private static final LongAdder deduplicated = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+    private static final LongAdder savedBytes = new LongAdder();
+
+    private ArtifactPipeline() {
+    }
+
+    /**
+     * Captures screenshot, page source and browser log of a failed test and attaches them to the current Allure
+     * test or fixture. Returns as soon as the raw data is out of the browser.
+     */
+    public static void captureFailure(WebDriver driver, String name) {
+        long start = System.nanoTime();
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            submit(name + " screenshot", "image/jpeg", ".jpg", png, ArtifactPipeline::toJpeg);
+        } catch (WebDriverException e) {
+            logger.warn("Could not capture screenshot for {}: {}", name, e.getMessage());
+        }
+        try {
+            byte[] html = driver.getPageSource().getBytes(StandardCharsets.UTF_8);
+            submit(name + " DOM", "text/html", ".html", html, bytes -> bytes);
+        } catch (WebDriverException e) {
+            logger.warn("Could not capture page source for {}: {}", name, e.getMessage());
+        }
+        browserLog(driver).ifPresent(log -> submit(name + " browser log", "text/plain", ".txt",
+                log.getBytes(StandardCharsets.UTF_8), bytes -> bytes));
+        logger.info("Failure artifacts of {} captured in {} ms", name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Waits until all queued artifacts are written.
+     *
+     * @return false if the timeout elapsed first.
+     */
+    public static boolean awaitCompletion(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts a new run: the quota, dedup index and counters start from zero. Call only while no artifact is
+     * being written, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        writtenByHash.clear();
+        reservedBytes.set(0);
+        written.reset();
+        deduplicated.reset();
+        dropped.reset();
+        savedBytes.reset();
+    }
+
+    public static boolean isEmpty() {
+        return written.sum() + deduplicated.sum() + dropped.sum() == 0;
+    }
+
+    public static String summary() {
+        return String.format("written=%d, deduplicated=%d, droppedOverQuota=%d, diskMb=%.1f, savedByEncodingMb=%.1f",
+                written.sum(), deduplicated.sum(), dropped.sum(), reservedBytes.get() / 1048576.0, savedBytes.sum() / 1048576.0);
+    }
+
+    private interface Encoder {
+        byte[] encode(byte[] raw) throws IOException;
+    }
+
+    private static void submit(String name, String type, String extension, byte[] raw, Encoder encoder) {
+        long quota = ConfigReader.getIntProperty("artifacts.quotaMb", 200) * 1048576L;
+        if (reservedBytes.get() >= quota) {
+            dropped.increment();
+            logger.warn("Artifact quota of {} MB reached, dropping {}", quota / 1048576, name);
+            return;
+        }
+        // Registered on the test thread, where Allure knows the current test; the file follows later
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String source = lifecycle.prepareAttachment(name, type, extension);
+        executor.execute(() -> write(lifecycle, source, raw, encoder));
+    }
+
+    private static void write(AllureLifecycle lifecycle, String source, byte[] raw, Encoder encoder) {
+        try {
+            byte[] encoded = encoder.encode(raw);
+            savedBytes.add(Math.max(0, raw.length - encoded.length));
+            Path target = resultsDirectory().resolve(source);
+            Path original = writtenByHash.putIfAbsent(sha256(encoded), target);
+            if (original != null && link(target, original)) {
+                deduplicated.increment();
+                return;
+            }
+            reservedBytes.addAndGet(encoded.length);
+            lifecycle.writeAttachment(source, new ByteArrayInputStream(encoded));
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write artifact {}: {}", source, e.getMessage());
+        }
+    }
+
+    private static boolean link(Path target, Path original) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.createLink(target, original);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // Different file systems, or links not supported: fall back to writing a copy
+            return false;
+        }
+    }
+
+    private static byte[] toJpeg(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            throw new IOException("Screenshot is not a readable image");
+        }
+        int maxWidth = ConfigReader.getIntProperty("artifacts.maxWidth", 1280);
+        double scale = source.getWidth() > maxWidth ? maxWidth / (double) source.getWidth() : 1.0;
+        int width = (int) Math.round(source.getWidth() * scale);
+        int height = (int) Math.round(source.getHeight() * scale);
+        // JPEG has no alpha channel
+        BufferedImage rgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(ConfigReader.getIntProperty("artifacts.jpegQuality", 70) / 100f);
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(jpeg)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        // Always JPEG: the attachment was registered as image/jpeg before encoding, on the test thread
+        return jpeg.toByteArray();
+    }
+
+    private static Optional<String> browserLog(WebDriver driver) {
+        try {
+            StringBuilder log = new StringBuilder();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                log.append(entry).append(System.lineSeparator());
+            }
+            return log.length() == 0 ? Optional.empty() : Optional.of(log.toString());
+        } catch (WebDriverException | UnsupportedOperationException e) {
+            // Not every driver exposes the browser log
+            return Optional.empty();
+        }
+    }
+
+    private static Path resultsDirectory() {
+        return Paths.get(System.getProperty("allure.results.directory", "allure-results"));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = ConfigReader.getIntProperty("artifacts.threads", 2);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(ConfigReader.getIntProperty("artifacts.queueSize", 8)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -1,37 +1,112 @@
 package com.uitests.utils;
 
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries only failures that a re-run can fix: timeouts, stale elements and crashed browser sessions.
+ * Assertion failures and anything unrecognised fail at once. All retries of a run share the
+ * {@code retry.budgetSeconds} budget, so a broken site cannot multiply the suite duration. Retried attempts
+ * resume from the test's last {@link StepCheckpoints checkpoint}.
+ */
 public class RetryAnalyzer implements IRetryAnalyzer {
 
     private static final Logger logger = LoggerFactory.getLogger(RetryAnalyzer.class);
     private int retryCount = 0;
-    // Max number of retries. Can be read from a config file.
-    private static final int MAX_RETRY_COUNT = 2;
-    // Example: Retry a failed test 2 times
+    // Max number of retries per test method
+    private static final int MAX_RETRY_COUNT = ConfigReader.getIntProperty("retry.maxCount", 2);
+    private static final long BUDGET_MILLIS = TimeUnit.SECONDS.toMillis(ConfigReader.getIntProperty("retry.budgetSeconds", 600));
+    // Run-wide time reserved for retries, estimated by the duration of the attempt being retried
+    private static final AtomicLong reservedMillis = new AtomicLong();
+
+    private static final List<String> CRASH_MESSAGES = Arrays.asList(
+            "chrome not reachable", "disconnected:", "session deleted because of page crash", "tab crashed");
+
+    public enum FailureKind { ASSERTION, TRANSIENT, SESSION_CRASH, OTHER }
 
     @Override
     public boolean retry(ITestResult result) {
         if (!result.isSuccess()) { // Check if test not succeed
-            if (retryCount < MAX_RETRY_COUNT) {
-                retryCount++;
-                logger.warn("Retrying test '{}', attempt #{}", result.getMethod().getMethodName(), retryCount);
+            String name = result.getMethod().getMethodName();
+            FailureKind kind = classify(result.getThrowable());
+            if (kind != FailureKind.TRANSIENT && kind != FailureKind.SESSION_CRASH) {
+                logger.error("Test '{}' failed with a {} failure, not retrying.", name, kind);
                 result.setStatus(ITestResult.FAILURE);
-                // Mark test as failed before retrying
-                return true; // True = Rerun the test
-            } else {
-                logger.error("Test '{}' failed after {} retries.", result.getMethod().getMethodName(), MAX_RETRY_COUNT);
+                return false;
+            }
+            if (retryCount >= MAX_RETRY_COUNT) {
+                logger.error("Test '{}' failed after {} retries.", name, MAX_RETRY_COUNT);
                 result.setStatus(ITestResult.FAILURE); // Ensure the final status is failure
+                return false;
+            }
+            if (!reserve(result.getEndMillis() - result.getStartMillis())) {
+                logger.error("Test '{}' failed with a {} failure, but the retry budget of {} s is used up.", name, kind,
+                        TimeUnit.MILLISECONDS.toSeconds(BUDGET_MILLIS));
+                result.setStatus(ITestResult.FAILURE);
+                return false;
             }
+            retryCount++;
+            logger.warn("Retrying test '{}' after a {} failure, attempt #{}", name, kind, retryCount);
+            StepCheckpoints.markRetry(ShardSelector.key(result.getMethod()));
+            result.setStatus(ITestResult.FAILURE);
+            // Mark test as failed before retrying
+            return true; // True = Rerun the test
         } else {
             result.setStatus(ITestResult.SUCCESS); // If test passes on a retry, mark it as success
         }
         return false; // False = Do not rerun the test
     }
 
+    /**
+     * Classifies a failure by the first recognised exception in its cause chain.
+     */
+    public static FailureKind classify(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AssertionError) {
+                return FailureKind.ASSERTION;
+            }
+            if (cause instanceof NoSuchSessionException || cause instanceof SessionNotCreatedException
+                    || cause instanceof UnreachableBrowserException) {
+                return FailureKind.SESSION_CRASH;
+            }
+            if (cause instanceof TimeoutException || cause instanceof ScriptTimeoutException
+                    || cause instanceof StaleElementReferenceException) {
+                return FailureKind.TRANSIENT;
+            }
+            if (cause instanceof WebDriverException && cause.getMessage() != null
+                    && CRASH_MESSAGES.stream().anyMatch(cause.getMessage()::contains)) {
+                return FailureKind.SESSION_CRASH;
+            }
+        }
+        return FailureKind.OTHER;
+    }
+
+    private static boolean reserve(long estimateMillis) {
+        while (true) {
+            long reserved = reservedMillis.get();
+            if (reserved + estimateMillis > BUDGET_MILLIS) {
+                return false;
+            }
+            if (reservedMillis.compareAndSet(reserved, reserved + estimateMillis)) {
+                return true;
+            }
+        }
+    }
+
     public int getRetryCount() {
         return retryCount;
     }
@@ -39,4 +114,15 @@ public class RetryAnalyzer implements IRetryAnalyzer {
     public static int getMaxRetryCount() {
         return MAX_RETRY_COUNT;
     }
+
+    /**
+     * Returns the retry budget reserved so far, so the next run starts with all of it.
+     */
+    public static void reset() {
+        reservedMillis.set(0);
+    }
+
+    public static long getReservedRetryMillis() {
+        return reservedMillis.get();
+    }
 }
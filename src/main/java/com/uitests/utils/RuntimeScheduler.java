@@ -0,0 +1,88 @@
+package com.uitests.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Orders test methods from their history so that the worker threads finish together: methods that failed or
+ * needed a retry in more than {@code scheduler.unreliableRate} of their runs go first, and within each group the
+ * longest run first. A long flow scheduled last would otherwise keep one thread busy while the others idle.
+ * <p>
+ * Also records every method's duration and outcome (passed, failed, or passed after a retry) into
+ * {@link TestHistory} and persists it when the suite finishes.
+ */
+public class RuntimeScheduler implements IMethodInterceptor, ITestListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuntimeScheduler.class);
+
+    // Methods whose current run already had a failed attempt that was retried
+    private final Set<String> retried = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        Map<String, TestHistory.Entry> history = TestHistory.read(TestHistory.file());
+        if (history.isEmpty()) {
+            return methods;
+        }
+        Map<String, Long> expected = ShardSelector.expectedDurations(history, methods);
+        double unreliableRate = Double.parseDouble(ConfigReader.getProperty("scheduler.unreliableRate", "0.2"));
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.<IMethodInstance>comparingInt(m -> isUnreliable(history, m, unreliableRate) ? 0 : 1)
+                .thenComparing(Comparator.<IMethodInstance>comparingLong(m -> expected.get(ShardSelector.key(m.getMethod()))).reversed())
+                .thenComparing(m -> ShardSelector.key(m.getMethod())));
+        logger.info("Scheduled {} methods: {}", ordered.size(), ordered.stream()
+                .map(m -> m.getMethod().getMethodName() + " (" + expected.get(ShardSelector.key(m.getMethod())) + " ms)")
+                .collect(Collectors.joining(", ")));
+        return ordered;
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        String key = ShardSelector.key(result.getMethod());
+        record(result, retried.remove(key) ? TestHistory.Outcome.FLAKY : TestHistory.Outcome.PASSED);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        retried.remove(ShardSelector.key(result.getMethod()));
+        record(result, TestHistory.Outcome.FAILED);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // A failed attempt that RetryAnalyzer re-runs is reported as skipped
+        if (result.wasRetried()) {
+            retried.add(ShardSelector.key(result.getMethod()));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        TestHistory.persist();
+    }
+
+    private static boolean isUnreliable(Map<String, TestHistory.Entry> history, IMethodInstance method, double threshold) {
+        TestHistory.Entry entry = history.get(ShardSelector.key(method.getMethod()));
+        return entry != null && entry.getUnreliableRate() > threshold;
+    }
+
+    private static void record(ITestResult result, TestHistory.Outcome outcome) {
+        TestHistory.record(ShardSelector.key(result.getMethod()), result.getEndMillis() - result.getStartMillis(), outcome);
+    }
+}
@@ -0,0 +1,109 @@
+package com.uitests.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps only this JVM's share of the test methods when {@code shard.count} > 1. Durations come from
+ * {@link TestHistory}, which {@link RuntimeScheduler} keeps up to date.
+ * <p>
+ * Methods are balanced by historical duration with longest-processing-time-first: sorted by expected duration,
+ * each goes to the shard with the least work so far. Every shard computes the same split, so all shards must
+ * read the same history; {@code run_sharded.sh} hands them a snapshot through {@code shard.history}.
+ * The selected methods keep the order they came in.
+ */
+public class ShardSelector implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSelector.class);
+    // Expected duration of methods without history when there is no history at all
+    private static final long DEFAULT_MILLIS = 60_000;
+
+    public static int shardIndex() {
+        return Integer.parseInt(System.getProperty("shard.index", "0"));
+    }
+
+    public static int shardCount() {
+        return Integer.parseInt(System.getProperty("shard.count", "1"));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the shard properties are inconsistent.
+     */
+    public static void validate() {
+        if (shardCount() < 1 || shardIndex() < 0 || shardIndex() >= shardCount()) {
+            throw new IllegalArgumentException("Invalid sharding: shard.index=" + shardIndex() + ", shard.count=" + shardCount()
+                    + ". The index must be between 0 and count - 1.");
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int count = shardCount();
+        if (count <= 1) {
+            return methods;
+        }
+        validate();
+        Map<String, Long> expected = expectedDurations(
+                TestHistory.read(Paths.get(System.getProperty("shard.history", TestHistory.file().toString()))), methods);
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.<IMethodInstance>comparingLong(m -> expected.get(key(m.getMethod()))).reversed()
+                .thenComparing(m -> key(m.getMethod())));
+        long[] load = new long[count];
+        Set<IMethodInstance> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (IMethodInstance method : ordered) {
+            int target = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (load[shard] < load[target]) {
+                    target = shard;
+                }
+            }
+            load[target] += expected.get(key(method.getMethod()));
+            if (target == shardIndex()) {
+                assigned.add(method);
+            }
+        }
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (assigned.contains(method)) {
+                selected.add(method);
+            }
+        }
+        logger.info("Shard {}/{} runs {} of {} methods, expected {} ms", shardIndex(), count, selected.size(),
+                methods.size(), load[shardIndex()]);
+        return selected;
+    }
+
+    /**
+     * @return The expected duration of every method, using the mean of the known methods (or a minute when
+     *         there is no history at all) for methods that have not run before.
+     */
+    static Map<String, Long> expectedDurations(Map<String, TestHistory.Entry> history, List<IMethodInstance> methods) {
+        long fallback = Math.round(history.values().stream().mapToLong(TestHistory.Entry::getMeanMillis).average().orElse(DEFAULT_MILLIS));
+        Map<String, Long> expected = new HashMap<>();
+        for (IMethodInstance method : methods) {
+            String key = key(method.getMethod());
+            TestHistory.Entry entry = history.get(key);
+            expected.put(key, entry == null ? fallback : entry.getMeanMillis());
+        }
+        return expected;
+    }
+
+    static String key(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+}
@@ -0,0 +1,84 @@
+package com.uitests.utils;
+
+import com.uitests.pages.SessionState;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browser state saved after each completed checkpointed step of a test, so that a retry can resume from the
+ * last one instead of re-running the whole flow. A checkpoint is only handed out to the attempt that
+ * {@link RetryAnalyzer} scheduled as a retry; any other attempt starts from the first step.
+ */
+public final class StepCheckpoints {
+
+    private static final Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+    private static final Set<String> retrying = ConcurrentHashMap.newKeySet();
+
+    private StepCheckpoints() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBooleanProperty("retry.resume", true);
+    }
+
+    public static void save(String testKey, int step, String stepName, SessionState state) {
+        checkpoints.put(testKey, new Checkpoint(step, stepName, state));
+    }
+
+    /**
+     * Marks the next attempt of the test as a retry that may resume from its last checkpoint.
+     */
+    static void markRetry(String testKey) {
+        retrying.add(testKey);
+    }
+
+    /**
+     * @return The checkpoint to resume from if this attempt is a retry; otherwise empty, and stale checkpoints of
+     *         earlier runs are dropped.
+     */
+    public static Optional<Checkpoint> resumePoint(String testKey) {
+        if (retrying.remove(testKey) && isEnabled()) {
+            return Optional.ofNullable(checkpoints.get(testKey));
+        }
+        checkpoints.remove(testKey);
+        return Optional.empty();
+    }
+
+    /**
+     * Forgets all checkpoints and pending retries, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        checkpoints.clear();
+        retrying.clear();
+    }
+
+    /**
+     * Session state after a completed step.
+     */
+    public static final class Checkpoint {
+        private final int step;
+        private final String stepName;
+        private final SessionState state;
+
+        private Checkpoint(int step, String stepName, SessionState state) {
+            this.step = step;
+            this.stepName = stepName;
+            this.state = state;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public String getStepName() {
+            return stepName;
+        }
+
+        public SessionState getState() {
+            return state;
+        }
+    }
+}
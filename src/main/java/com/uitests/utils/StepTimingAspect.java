@@ -0,0 +1,57 @@
+package com.uitests.utils;
+
+import com.uitests.driver.CommandMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Times Allure {@code @Step} methods and the BasePage interaction helpers, woven at load time by the
+ * aspectjweaver agent configured in surefire (see META-INF/aop.xml). Timings are keyed by the runtime page
+ * class, so a BasePage helper called from HomePage is recorded as "HomePage.jsClick". Steps are also checked
+ * against the WebDriver command budget of {@link CommandMetrics}.
+ */
+@Aspect
+public class StepTimingAspect {
+
+    @Pointcut("execution(@io.qameta.allure.Step * com.uitests..*(..))")
+    public void step() {
+    }
+
+    @Pointcut("execution(* com.uitests.pages.BasePage.scrollAndClick(..))"
+            + " || execution(* com.uitests.pages.BasePage.jsClick(..))"
+            + " || execution(* com.uitests.pages.BasePage.waitFor(..))"
+            + " || execution(* com.uitests.pages.BasePage.acceptCookiesIfPresent(..))")
+    public void pageHelper() {
+    }
+
+    @Around("pageHelper() && !step()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            StepTimings.record(stepName(joinPoint), System.nanoTime() - start);
+        }
+    }
+
+    @Around("step()")
+    public Object timeStep(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        long commandMark = CommandMetrics.mark();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            String name = stepName(joinPoint);
+            StepTimings.record(name, System.nanoTime() - start);
+            CommandMetrics.checkStep(name, commandMark);
+        }
+    }
+
+    static String stepName(ProceedingJoinPoint joinPoint) {
+        Object target = joinPoint.getThis();
+        Class<?> owner = target != null ? target.getClass() : joinPoint.getSignature().getDeclaringType();
+        return owner.getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+}
@@ -0,0 +1,129 @@
+package com.uitests.utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms per step, keyed "PageClass.method". Fed by {@link StepTimingAspect}; recording is a
+ * lock-free HdrHistogram update, so it is cheap enough to stay on for every run.
+ * <p>
+ * The export carries p50/p95/p99 per step plus the compressed histogram itself, so exports of many runs can be
+ * decoded and merged without losing accuracy.
+ */
+public final class StepTimings {
+
+    private static final Logger logger = LoggerFactory.getLogger(StepTimings.class);
+
+    // Microsecond resolution, three significant digits, auto-resizing range
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private StepTimings() {
+    }
+
+    public static void record(String step, long elapsedNanos) {
+        histograms.computeIfAbsent(step, k -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+    }
+
+    /**
+     * Forgets the step timings recorded so far, e.g. before another run in the same JVM.
+     */
+    public static void reset() {
+        histograms.clear();
+    }
+
+    public static boolean isEmpty() {
+        return histograms.isEmpty();
+    }
+
+    /**
+     * @return The export document: run timestamp and, per step, count, mean, p50/p95/p99 and max in milliseconds
+     *         plus the base64 compressed histogram (microseconds).
+     */
+    public static String toJson() {
+        Map<String, Object> steps = new TreeMap<>();
+        histograms.forEach((step, live) -> {
+            Histogram histogram = live.copy();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("count", histogram.getTotalCount());
+            entry.put("meanMs", millis(histogram.getMean()));
+            entry.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            entry.put("p95Ms", millis(histogram.getValueAtPercentile(95)));
+            entry.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            entry.put("maxMs", millis(histogram.getMaxValue()));
+            entry.put("histogram", encode(histogram));
+            steps.put(step, entry);
+        });
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("generatedAt", Instant.now().toString());
+        document.put("unit", "ms");
+        document.put("steps", steps);
+        return new Json().toJson(document);
+    }
+
+    /**
+     * Writes {@link #toJson()} to {@code step.timings.file} (default target/step-timings.json).
+     *
+     * @return The JSON that was written.
+     */
+    public static String export() {
+        String json = toJson();
+        Path file = Paths.get(ConfigReader.getProperty("step.timings.file", "target/step-timings.json"));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+            logger.info("Step timings written to {}", file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("Could not write step timings to {}: {}", file, e.getMessage());
+        }
+        return json;
+    }
+
+    /**
+     * @return One line per step, slowest p95 first.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        histograms.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().getValueAtPercentile(95), a.getValue().getValueAtPercentile(95)))
+                .forEach(e -> {
+                    Histogram h = e.getValue();
+                    summary.append(String.format("  %-60s n=%-5d p50=%8.1f ms  p95=%8.1f ms  p99=%8.1f ms%n", e.getKey(),
+                            h.getTotalCount(), millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(95)),
+                            millis(h.getValueAtPercentile(99))));
+                });
+        return summary.toString();
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros / 100.0) / 10.0;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
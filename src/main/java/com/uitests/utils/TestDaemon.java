@@ -0,0 +1,413 @@
+package com.uitests.utils;
+
+import com.uitests.driver.CommandMetrics;
+import com.uitests.driver.DriverManager;
+import com.uitests.driver.LaunchTimings;
+import com.uitests.pages.CookieConsent;
+import com.uitests.pages.LocatorProfiler;
+import com.uitests.pages.LocatorStats;
+import com.uitests.pages.Navigator;
+import com.uitests.pages.PagePerformance;
+import com.uitests.pages.PageRegistry;
+import com.uitests.pages.SessionState;
+import com.uitests.pages.WaitStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Long-lived test runner that keeps the JVM (woven classes, resolved drivers, loaded configuration) and a pool of
+ * warm browser sessions between runs, so re-running a test skips the cold start. Started by
+ * {@code ./run_daemon.sh start}; runs are requested over a loopback socket on {@code daemon.port}, one line each:
+ * <ul>
+ *     <li>{@code RUN} followed by nothing (the {@code daemon.suite} suite), a suite file, or test classes and
+ *     methods such as {@code CloudBeesFlowTest#testCloudBeesFullFlow}</li>
+ *     <li>{@code STATUS}</li>
+ *     <li>{@code STOP}</li>
+ * </ul>
+ * Results are streamed back one line per test and end with {@code END <exit code>}. Runs are executed one at a
+ * time. Before each run, test sources changed since their classes were compiled are recompiled, and the test
+ * classes are loaded into a fresh class loader, so edits to tests apply without a restart; changes to
+ * {@code src/main} still need one. Run-wide statistics and caches of the framework are cleared before each run. Sessions go back to the pool after each test (which resets them) and the pool
+ * is topped up after each run.
+ */
+public final class TestDaemon {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestDaemon.class);
+    private static final Path TEST_SOURCES = Paths.get("src/test/java");
+    private static final Path MAIN_SOURCES = Paths.get("src/main/java");
+    private static final Path TEST_CLASSES = Paths.get("target/test-classes");
+    private static final String TEST_PACKAGE = "com.uitests.tests.";
+
+    private final int port;
+    private final String defaultSuite;
+    private final String browser;
+    private final long startedAt = System.currentTimeMillis();
+    private final ReentrantLock runLock = new ReentrantLock(true);
+    private final AtomicInteger runCount = new AtomicInteger();
+    private volatile ServerSocket server;
+    private volatile String currentRun;
+
+    private TestDaemon() {
+        this.port = ConfigReader.getIntProperty("daemon.port", 7717);
+        this.defaultSuite = ConfigReader.getProperty("daemon.suite", "run_ui_tests.xml");
+        this.browser = ConfigReader.getProperty("daemon.browser", "chrome");
+    }
+
+    public static void main(String[] args) throws IOException {
+        new TestDaemon().serve();
+    }
+
+    private void serve() throws IOException {
+        // Sessions outlive the tests that use them only in pooled mode
+        System.setProperty("driver.pool.enabled", "true");
+        System.setProperty("browser", browser);
+        server = new ServerSocket(port, 8, InetAddress.getLoopbackAddress());
+        long start = System.nanoTime();
+        DriverManager.warmUpPool(browser);
+        logger.info("Test daemon listening on 127.0.0.1:{} with warm {} sessions ({} ms to start)", port, browser,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        while (!server.isClosed()) {
+            Socket client;
+            try {
+                client = server.accept();
+            } catch (SocketException e) {
+                break; // Closed by STOP
+            }
+            Thread handler = new Thread(() -> handle(client), "daemon-client");
+            handler.setDaemon(true);
+            handler.start();
+        }
+        logger.info("Test daemon stopped after {} runs", runCount.get());
+        System.exit(0); // Runs the pool's shutdown hook, which quits the warm sessions
+    }
+
+    private void handle(Socket client) {
+        try (Socket socket = client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            String request = in.readLine();
+            if (request == null) {
+                return; // A readiness probe
+            }
+            String command = request.trim();
+            String verb = command.split("\\s+", 2)[0].toUpperCase();
+            switch (verb) {
+                case "RUN":
+                    String targets = command.length() > 3 ? command.substring(3).trim() : "";
+                    out.println("END " + run(targets, out));
+                    replenish();
+                    break;
+                case "STATUS":
+                    out.println("UP " + TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startedAt) + " s, runs="
+                            + runCount.get() + ", running=" + (currentRun == null ? "-" : currentRun)
+                            + ", pool=" + DriverManager.getPoolStats());
+                    out.println("END 0");
+                    break;
+                case "STOP":
+                    out.println("END 0");
+                    server.close();
+                    break;
+                default:
+                    out.println("ERROR unknown request '" + command + "'; expected RUN [targets], STATUS or STOP");
+                    out.println("END 2");
+            }
+        } catch (IOException e) {
+            logger.warn("Daemon client connection failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The exit code of the run: 0 if every test passed, 1 if any failed, 2 if the run could not start.
+     */
+    private int run(String targets, PrintWriter out) {
+        if (runLock.isLocked()) {
+            out.println("QUEUED behind " + currentRun);
+        }
+        runLock.lock();
+        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+        try {
+            currentRun = targets.isEmpty() ? defaultSuite : targets;
+            int run = runCount.incrementAndGet();
+            long start = System.nanoTime();
+            if (newestModification(MAIN_SOURCES) > startedAt) {
+                out.println("NOTE src/main changed since the daemon started; restart it to pick that up");
+            }
+            String compileError = compileChangedTests(out);
+            if (compileError != null) {
+                out.println("ERROR " + compileError);
+                return 2;
+            }
+            XmlSuite suite;
+            try {
+                suite = suiteFor(targets);
+            } catch (IOException | IllegalArgumentException e) {
+                out.println("ERROR " + e.getMessage());
+                return 2;
+            }
+            resetRunState();
+            // Test classes are loaded afresh for every run; framework classes and sessions are shared
+            try (URLClassLoader testLoader = new TestClassLoader(previous)) {
+                Thread.currentThread().setContextClassLoader(testLoader);
+                ResultStream results = new ResultStream(out);
+                TestNG testng = new TestNG(false);
+                testng.setXmlSuites(Collections.singletonList(suite));
+                testng.setOutputDirectory("target/daemon-output");
+                testng.addListener(results);
+                testng.run();
+                out.printf("DONE run %d: passed=%d, failed=%d, skipped=%d in %d ms%n", run, results.passed.get(),
+                        results.failed.get(), results.skipped.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return results.failed.get() == 0 ? 0 : 1;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Daemon run failed", e);
+            out.println("ERROR " + e);
+            return 2;
+        } finally {
+            Thread.currentThread().setContextClassLoader(previous);
+            currentRun = null;
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Clears the run-wide state the framework keeps in static fields, which outlives a run in this JVM: the retry
+     * budget, checkpoints, statistics (including cookie consent and session launch timings), cached session
+     * states and page objects. Browser sessions, the pool and launch admission are machine state and are kept.
+     */
+    private static void resetRunState() {
+        RetryAnalyzer.reset();
+        StepCheckpoints.reset();
+        StepTimings.reset();
+        CommandMetrics.reset();
+        WaitStats.reset();
+        LocatorStats.reset();
+        LocatorProfiler.reset();
+        PagePerformance.reset();
+        PageRegistry.reset();
+        Navigator.reset();
+        SessionState.resetRunCache();
+        ArtifactPipeline.reset();
+        CookieConsent.reset();
+        LaunchTimings.reset();
+    }
+
+    /**
+     * Replaces sessions recycled during the last run, after its client has its result.
+     */
+    private void replenish() {
+        runLock.lock();
+        try {
+            DriverManager.warmUpPool(browser);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Builds the suite to run: the default suite, a given suite file, or the default suite's listeners and
+     * parameters with the given classes and methods as its only test.
+     */
+    private XmlSuite suiteFor(String targets) throws IOException {
+        if (targets.isEmpty() || targets.endsWith(".xml")) {
+            return parse(targets.isEmpty() ? defaultSuite : targets);
+        }
+        XmlSuite suite = parse(defaultSuite);
+        Map<String, String> parameters = new LinkedHashMap<>(suite.getParameters());
+        if (!suite.getTests().isEmpty()) {
+            parameters.putAll(suite.getTests().get(0).getLocalParameters());
+        }
+        suite.getTests().clear();
+        XmlTest test = new XmlTest(suite);
+        test.setName("daemon");
+        test.setParameters(parameters);
+        Map<String, XmlClass> classes = new LinkedHashMap<>();
+        for (String target : targets.split("[\\s,]+")) {
+            String[] parts = target.split("#", 2);
+            String className = parts[0].contains(".") ? parts[0] : TEST_PACKAGE + parts[0];
+            XmlClass xmlClass = classes.computeIfAbsent(className, name -> new XmlClass(name, false));
+            if (parts.length > 1) {
+                List<XmlInclude> included = new ArrayList<>(xmlClass.getIncludedMethods());
+                included.add(new XmlInclude(parts[1]));
+                xmlClass.setIncludedMethods(included);
+            }
+        }
+        test.setXmlClasses(new ArrayList<>(classes.values()));
+        return suite;
+    }
+
+    private static XmlSuite parse(String suiteFile) throws IOException {
+        if (!Files.isRegularFile(Paths.get(suiteFile))) {
+            throw new IllegalArgumentException("No suite file " + suiteFile);
+        }
+        return new Parser(suiteFile).parseToList().get(0);
+    }
+
+    /**
+     * Recompiles the test sources if any of them is newer than its class.
+     *
+     * @return null on success, otherwise the reason the compilation failed.
+     */
+    private static String compileChangedTests(PrintWriter out) throws IOException {
+        if (!Files.isDirectory(TEST_SOURCES)) {
+            return null;
+        }
+        List<Path> sources;
+        try (Stream<Path> files = Files.walk(TEST_SOURCES)) {
+            sources = files.filter(p -> p.toString().endsWith(".java")).collect(Collectors.toList());
+        }
+        boolean changed = false;
+        for (Path source : sources) {
+            Path compiled = TEST_CLASSES.resolve(TEST_SOURCES.relativize(source).toString().replaceAll("\\.java$", ".class"));
+            if (!Files.exists(compiled) || Files.getLastModifiedTime(source).compareTo(Files.getLastModifiedTime(compiled)) > 0) {
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) {
+            return null;
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return "test sources changed but this JVM has no compiler; run mvn test-compile";
+        }
+        out.println("COMPILING " + sources.size() + " test sources");
+        List<String> args = new ArrayList<>(List.of("-d", TEST_CLASSES.toString(), "-cp", System.getProperty("java.class.path"),
+                "-encoding", "UTF-8", "-parameters"));
+        sources.forEach(source -> args.add(source.toString()));
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        int status = compiler.run(null, null, diagnostics, args.toArray(new String[0]));
+        for (String line : diagnostics.toString(StandardCharsets.UTF_8.name()).split("\\R")) {
+            if (!line.isEmpty()) {
+                out.println("COMPILER " + line);
+            }
+        }
+        return status == 0 ? null : "compilation of test sources failed";
+    }
+
+    private static long newestModification(Path root) {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.mapToLong(p -> p.toFile().lastModified()).max().orElse(0);
+        } catch (IOException | UncheckedIOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Loads classes of {@code target/test-classes} itself instead of asking its parent, so every run sees the
+     * test classes as last compiled. Everything else, including the framework under test, comes from the parent.
+     */
+    private static final class TestClassLoader extends URLClassLoader {
+
+        private TestClassLoader(ClassLoader parent) throws IOException {
+            super(new URL[]{TEST_CLASSES.toUri().toURL()}, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null && findResource(name.replace('.', '/') + ".class") != null) {
+                    type = findClass(name);
+                }
+                if (type == null) {
+                    return super.loadClass(name, resolve);
+                }
+                if (resolve) {
+                    resolveClass(type);
+                }
+                return type;
+            }
+        }
+    }
+
+    private static final class ResultStream implements ITestListener {
+        private final PrintWriter out;
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        private ResultStream(PrintWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void onTestStart(ITestResult result) {
+            send("STARTED " + name(result));
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed.incrementAndGet();
+            send("PASSED " + name(result) + " (" + (result.getEndMillis() - result.getStartMillis()) + " ms)");
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed.incrementAndGet();
+            Throwable cause = result.getThrowable();
+            send("FAILED " + name(result) + " (" + (result.getEndMillis() - result.getStartMillis()) + " ms): "
+                    + (cause == null ? "" : String.valueOf(cause).replace('\n', ' ')));
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            if (result.wasRetried()) {
+                send("RETRYING " + name(result) + ": " + String.valueOf(result.getThrowable()).replace('\n', ' '));
+                return;
+            }
+            skipped.incrementAndGet();
+            send("SKIPPED " + name(result));
+        }
+
+        private void send(String line) {
+            synchronized (out) {
+                out.println(line);
+            }
+        }
+
+        private static String name(ITestResult result) {
+            return result.getTestClass().getRealClass().getSimpleName() + "#" + result.getMethod().getMethodName();
+        }
+    }
+}
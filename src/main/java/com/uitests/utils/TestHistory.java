@@ -0,0 +1,186 @@
+package com.uitests.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical statistics per test method ("class#method"): duration as an exponentially weighted mean, plus how
+ * often the method ran, failed, and passed only after a retry. Kept in {@code test.history.file} (default
+ * .test-history/durations.properties); every JVM merges its results into the file under a file lock when its
+ * suite finishes.
+ */
+public final class TestHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestHistory.class);
+    // Weight of the newest sample in the moving mean
+    private static final double ALPHA = 0.3;
+    // FileChannel locks are held per JVM, so threads of the same JVM must also be serialised
+    private static final Object jvmLock = new Object();
+
+    private static final Map<String, Entry> pending = new ConcurrentHashMap<>();
+
+    public enum Outcome { PASSED, FAILED, FLAKY }
+
+    private TestHistory() {
+    }
+
+    public static Path file() {
+        return Paths.get(System.getProperty("test.history.file",
+                ConfigReader.getProperty("test.history.file", ".test-history/durations.properties")));
+    }
+
+    /**
+     * Reads the statistics keyed "class#method".
+     *
+     * @param file A history file, or a snapshot of one.
+     * @return The statistics; empty if the file does not exist.
+     */
+    public static Map<String, Entry> read(Path file) {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            logger.warn("Could not read test history {}: {}", file, e.getMessage());
+            return entries;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            if (key.endsWith(".meanMs")) {
+                String test = key.substring(0, key.length() - ".meanMs".length());
+                try {
+                    entries.put(test, Entry.from(properties, test));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring malformed test history entry {}", test);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Keeps the result of one test method in memory until {@link #persist()}.
+     */
+    public static void record(String testKey, long durationMillis, Outcome outcome) {
+        pending.merge(testKey, Entry.of(durationMillis, outcome), Entry::merge);
+    }
+
+    /**
+     * Merges the results recorded by this JVM into the history file.
+     */
+    public static void persist() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Path file = file();
+        synchronized (jvmLock) {
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    FileLock lock = channel.lock();
+                    try {
+                        merge(channel);
+                    } finally {
+                        lock.release();
+                    }
+                }
+                logger.info("Merged results of {} test methods into {}", pending.size(), file);
+                pending.clear();
+            } catch (IOException | NumberFormatException e) {
+                logger.warn("Could not update test history {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    // Called with the file lock held
+    private static void merge(FileChannel channel) throws IOException {
+        Properties history = new Properties();
+        channel.position(0);
+        // Not closed on purpose: closing the stream would close the locked channel
+        history.load(Channels.newInputStream(channel));
+        pending.forEach((test, latest) -> {
+            Entry merged = history.getProperty(test + ".meanMs") == null
+                    ? latest
+                    : Entry.from(history, test).merge(latest);
+            merged.store(history, test);
+        });
+        channel.truncate(0);
+        channel.position(0);
+        OutputStream output = Channels.newOutputStream(channel);
+        history.store(output, "Test method durations and outcomes");
+        output.flush();
+    }
+
+    /**
+     * Statistics of one test method.
+     */
+    public static final class Entry {
+        private final long meanMillis;
+        private final long runs;
+        private final long failures;
+        private final long flakes;
+
+        private Entry(long meanMillis, long runs, long failures, long flakes) {
+            this.meanMillis = meanMillis;
+            this.runs = runs;
+            this.failures = failures;
+            this.flakes = flakes;
+        }
+
+        static Entry of(long durationMillis, Outcome outcome) {
+            return new Entry(durationMillis, 1, outcome == Outcome.FAILED ? 1 : 0, outcome == Outcome.FLAKY ? 1 : 0);
+        }
+
+        static Entry from(Properties properties, String test) {
+            return new Entry(Long.parseLong(properties.getProperty(test + ".meanMs")),
+                    Long.parseLong(properties.getProperty(test + ".runs", "1")),
+                    Long.parseLong(properties.getProperty(test + ".failures", "0")),
+                    Long.parseLong(properties.getProperty(test + ".flakes", "0")));
+        }
+
+        Entry merge(Entry latest) {
+            return new Entry(Math.round(meanMillis * (1 - ALPHA) + latest.meanMillis * ALPHA),
+                    runs + latest.runs, failures + latest.failures, flakes + latest.flakes);
+        }
+
+        void store(Properties properties, String test) {
+            properties.setProperty(test + ".meanMs", String.valueOf(meanMillis));
+            properties.setProperty(test + ".runs", String.valueOf(runs));
+            properties.setProperty(test + ".failures", String.valueOf(failures));
+            properties.setProperty(test + ".flakes", String.valueOf(flakes));
+        }
+
+        public long getMeanMillis() {
+            return meanMillis;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return Share of runs that failed or needed a retry to pass.
+         */
+        public double getUnreliableRate() {
+            return runs == 0 ? 0 : (failures + flakes) / (double) runs;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.uitests.utils;
+
+import com.uitests.driver.TraceRecorder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Reports {@code @Step} methods, explicit waits and sleeps of the framework code as spans to the
+ * {@link TraceRecorder}. A span is recorded only while a trace is active on the calling thread; otherwise the
+ * advice just proceeds.
+ */
+@Aspect
+public class TraceAspect {
+
+    @Pointcut("call(* org.openqa.selenium.support.ui.Wait+.until(..)) && within(com.uitests..*)")
+    public void explicitWait() {
+    }
+
+    @Pointcut("call(void java.lang.Thread.sleep(..)) && within(com.uitests..*)")
+    public void sleep() {
+    }
+
+    @Around("com.uitests.utils.StepTimingAspect.step()")
+    public Object traceStep(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, StepTimingAspect.stepName(joinPoint), "step");
+    }
+
+    @Around("explicitWait()")
+    public Object traceWait(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "wait " + joinPoint.getSourceLocation().getWithinType().getSimpleName()
+                + ":" + joinPoint.getSourceLocation().getLine(), "wait");
+    }
+
+    @Around("sleep()")
+    public Object traceSleep(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "sleep " + joinPoint.getArgs()[0] + " ms", "sleep");
+    }
+
+    private static Object trace(ProceedingJoinPoint joinPoint, String name, String category) throws Throwable {
+        if (!TraceRecorder.isActive()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            TraceRecorder.span(name, category, start, System.nanoTime());
+        }
+    }
+}
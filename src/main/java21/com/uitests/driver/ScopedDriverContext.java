@@ -0,0 +1,65 @@
+package com.uitests.driver;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Driver context bound to a test task with a {@link ScopedValue} rather than to a thread. {@link #bind} wraps each
+ * task TestNG submits, so the binding covers exactly one test method with its before/after methods. Only threads
+ * forked inside the task with {@code StructuredTaskScope} inherit the binding; executor threads do not, including
+ * the workers of {@link TabExecutor}, which are handed tab-bound drivers explicitly. When the task ends, a driver
+ * the test did not quit is detected and released.
+ * <p>
+ * Only the driver is scoped. The other per-test state (BaseTest's step run, {@link CommandMetrics}' per-thread
+ * counters, {@link TraceRecorder}'s current trace) stays in ThreadLocals; each task runs on its own virtual thread,
+ * so that state is dropped with the thread rather than checked for leaks.
+ * <p>
+ * Code running outside any task (suite-level configuration methods on the main thread) falls back to a
+ * thread-bound context.
+ */
+public final class ScopedDriverContext implements DriverContext {
+
+    private static final ScopedValue<Slot> SLOT = ScopedValue.newInstance();
+
+    private final DriverContext unscoped = DriverContext.threadLocal();
+
+    /**
+     * Runs the task with a fresh driver slot bound for its duration.
+     */
+    public static Runnable bind(Runnable task) {
+        return () -> ScopedValue.where(SLOT, new Slot()).run(() -> {
+            try {
+                task.run();
+            } finally {
+                DriverManager.releaseLeakedDriver("Test task end");
+            }
+        });
+    }
+
+    @Override
+    public WebDriver get() {
+        return SLOT.isBound() ? SLOT.get().driver : unscoped.get();
+    }
+
+    @Override
+    public void set(WebDriver driver) {
+        if (SLOT.isBound()) {
+            SLOT.get().driver = driver;
+        } else {
+            unscoped.set(driver);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (SLOT.isBound()) {
+            SLOT.get().driver = null;
+        } else {
+            unscoped.clear();
+        }
+    }
+
+    private static final class Slot {
+        // Read by forked child threads
+        private volatile WebDriver driver;
+    }
+}
@@ -0,0 +1,63 @@
+package com.uitests.utils;
+
+import com.uitests.driver.DriverManager;
+import com.uitests.driver.ScopedDriverContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IExecutionListener;
+import org.testng.IExecutorServiceFactory;
+import org.testng.TestNG;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs parallel test methods on virtual threads when {@code execution.threads=virtual} (Java 21 build, see the
+ * {@code java21} Maven profile). Every test method gets its own virtual thread and a driver context scoped to it;
+ * the suite's {@code thread-count} no longer caps concurrency, the number of browser sessions does
+ * ({@code driver.maxSessions}, defaulting to the thread count).
+ * <p>
+ * Registered as an execution listener so it can install the executor factory on the running TestNG instance
+ * before the first suite starts; Surefire offers no other way to pass one.
+ */
+public class VirtualThreadExecution implements IExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecution.class);
+
+    @Override
+    public void onExecutionStart() {
+        if (!"virtual".equalsIgnoreCase(ConfigReader.getProperty("execution.threads", "platform"))) {
+            return;
+        }
+        TestNG testng = TestNG.getDefault();
+        if (testng == null) {
+            logger.warn("No running TestNG instance found; test methods stay on platform threads");
+            return;
+        }
+        DriverManager.useContext(new ScopedDriverContext());
+        testng.setExecutorServiceFactory(new Factory());
+        logger.info("Test methods run on virtual threads; concurrency is limited by browser sessions");
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (DriverManager.getSessionWaitMillis() > 0) {
+            logger.info("Tests waited {} ms in total for a browser session", DriverManager.getSessionWaitMillis());
+        }
+    }
+
+    private static final class Factory implements IExecutorServiceFactory {
+
+        @Override
+        public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                      BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+            // The thread count the suite asked for becomes the session cap instead of the thread cap
+            DriverManager.setDefaultSessionLimit(corePoolSize);
+            ThreadFactory virtual = Thread.ofVirtual().name("test-vt-", 1).factory();
+            return Executors.newThreadPerTaskExecutor(task -> virtual.newThread(ScopedDriverContext.bind(task)));
+        }
+    }
+}
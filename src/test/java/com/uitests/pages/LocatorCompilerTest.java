@@ -0,0 +1,58 @@
+package com.uitests.pages;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * XPath to CSS rewrites of {@link LocatorCompiler}: what it rewrites and what it must leave as XPath. No browser
+ * needed.
+ */
+public class LocatorCompilerTest {
+
+    @DataProvider
+    public Object[][] rewrites() {
+        return new Object[][]{
+                {"//button[@id='save']", "button[id='save']"},
+                {"//*[@id='subcategory-item-0__Documentation']", "[id='subcategory-item-0__Documentation']"},
+                {"//a[contains(@href, '/products/cloudbees-cdro')]", "a[href*='/products/cloudbees-cdro']"},
+                {"//a[starts-with(@href, 'https:')]", "a[href^='https:']"},
+                {"//input[@disabled]", "input[disabled]"},
+                {"//a[@id='x' and contains(@class, 'menu')]", "a[id='x'][class*='menu']"},
+                {"//a[@title='Search and filter']", "a[title='Search and filter']"},
+                {"//a[@title=\"it's\"]", "a[title=\"it's\"]"},
+                {"//nav[@role='navigation']//a", "nav[role='navigation'] a"},
+                {"//ul/li", "ul > li"},
+                {"//*", "*"},
+        };
+    }
+
+    @Test(dataProvider = "rewrites")
+    public void rewritesToCss(String xpath, String css) {
+        Assert.assertEquals(LocatorCompiler.toCss(xpath), css);
+    }
+
+    @DataProvider
+    public Object[][] declines() {
+        return new Object[][]{
+                {"//button[contains(text(),'Products')]"}, // Text
+                {"//h2[text()='Cost Savings']"},
+                {"//li[2]"}, // Position
+                {"//li[position()=1]"},
+                {"//li[last()]"},
+                {"//a[@id='x' or @id='y']"}, // Boolean operators other than and
+                {"//a[not(@href)]"},
+                {"//a[contains(@href, '')]"}, // Empty needle: true in XPath, never in CSS
+                {"//a[starts-with(@href, \"\")]"},
+                {"/html/body//a"}, // Anchored at the document root
+                {"//a[@id='a\\b']"}, // Backslash would be an escape in CSS
+                {"//a/.."}, // Other axes
+                {"//a | //button"}, // Unions
+        };
+    }
+
+    @Test(dataProvider = "declines")
+    public void keepsXpathCssCannotExpress(String xpath) {
+        Assert.assertNull(LocatorCompiler.toCss(xpath), xpath);
+    }
+}
@@ -1,26 +1,66 @@
 package com.uitests.tests;
 
 
+import com.uitests.driver.CommandMetrics;
 import com.uitests.driver.DriverManager;
-import io.qameta.allure.Attachment;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import com.uitests.driver.LaunchAdmission;
+import com.uitests.driver.LaunchTimings;
+import com.uitests.driver.NetworkReplay;
+import com.uitests.driver.TraceRecorder;
+import com.uitests.pages.CookieConsent;
+import com.uitests.pages.LocatorCompiler;
+import com.uitests.pages.LocatorProfiler;
+import com.uitests.pages.LocatorStats;
+import com.uitests.pages.Navigator;
+import com.uitests.pages.PagePerformance;
+import com.uitests.pages.PageRegistry;
+import com.uitests.pages.SessionState;
+import com.uitests.pages.WaitStats;
+import com.uitests.utils.ArtifactPipeline;
+import com.uitests.utils.ConfigReader;
+import com.uitests.utils.RetryAnalyzer;
+import com.uitests.utils.RuntimeScheduler;
+import com.uitests.utils.ShardSelector;
+import com.uitests.utils.StepCheckpoints;
+import com.uitests.utils.StepTimings;
+import io.qameta.allure.Allure;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
 
 
+// Sharding, and the history it balances shards with, work in every suite that runs these tests, not only in run_ui_tests.xml
+@Listeners({ShardSelector.class, RuntimeScheduler.class})
 public abstract class BaseTest {
-    protected WebDriver driver;
     private static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
+    // Step position of the running test and the checkpoint a retry resumes from
+    private static final ThreadLocal<StepRun> stepRun = new ThreadLocal<>();
 
+    @BeforeSuite(alwaysRun = true)
+    @Parameters("browser") // Only suite-level parameters reach a @BeforeSuite
+    public void warmUpDrivers(@Optional String browser) {
+        if (browser == null) { // Resolved as DriverManager resolves it
+            browser = System.getProperty("browser", ConfigReader.getProperty("browser", "chrome"));
+        }
+        System.setProperty("browser", browser);
+        ShardSelector.validate();
+        if (ShardSelector.shardCount() > 1) {
+            logger.info("Running shard {} of {}", ShardSelector.shardIndex() + 1, ShardSelector.shardCount());
+        }
+        LocatorCompiler.checkPackage("com.uitests.pages"); // Logs invalid and costly locators; fails with locators.strict=true
+        DriverManager.warmUpPool(browser); // No-op unless driver.pool.enabled=true
+    }
 
     @BeforeMethod
     @Parameters("browser") 
@@ -29,16 +69,27 @@ public abstract class BaseTest {
         logger.info("--------------------------------------------------------------------------------");
         logger.info("Starting test: {} with browser: {}", method.getName(), browser);
         logger.info("--------------------------------------------------------------------------------");
-        driver = DriverManager.getDriver(); // Initializes driver via ThreadLocal
+        DriverManager.releaseLeakedDriver("setUp of " + method.getName()); // A previous test on this thread did not quit
+        WebDriver driver = DriverManager.getDriver(); // Initializes driver in the current test context
+        String testKey = getClass().getName() + "#" + method.getName();
+        stepRun.set(new StepRun(testKey, StepCheckpoints.resumePoint(testKey).orElse(null)));
+        if (CommandMetrics.isEnabled()) {
+            CommandMetrics.startTest(method.getName());
+        }
+        if (TraceRecorder.isEnabled()) {
+            TraceRecorder.start(method.getName(), driver);
+        }
     }
 
     @AfterMethod
     public void tearDown(ITestResult result) {
+        WebDriver driver = DriverManager.getExistingDriver();
         logger.info("--------------------------------------------------------------------------------");
         if (result.getStatus() == ITestResult.FAILURE) {
             logger.error("Test FAILED: {}", result.getName());
             if (driver != null) {
-                captureScreenshot(result.getMethod().getMethodName() + "_failure");
+                // Only the raw capture happens here; encoding and writing run in the background
+                ArtifactPipeline.captureFailure(driver, result.getMethod().getMethodName() + "_failure");
             }
             // Log throwable
             if (result.getThrowable() != null) {
@@ -51,16 +102,131 @@ public abstract class BaseTest {
         }
         logger.info("Finished test: {}", result.getName());
         logger.info("--------------------------------------------------------------------------------\n");
+        if (CommandMetrics.isEnabled()) {
+            CommandMetrics.endTest();
+        }
+        String trace = TraceRecorder.stop(driver);
+        if (trace != null) {
+            // Opens in ui.perfetto.dev or chrome://tracing
+            Allure.addAttachment(result.getName() + " trace", "application/json", trace, ".json");
+        }
         DriverManager.quitDriver(); // Quits driver and removes from ThreadLocal
     }
 
-    @Attachment(value = "{screenshotName}", type = "image/png")
-    public byte[] captureScreenshot(String screenshotName) {
-        if (driver == null) {
-            logger.warn("Driver is null, cannot capture screenshot: {}", screenshotName);
-            return new byte[0];
+    @AfterSuite(alwaysRun = true)
+    public void logRunStats() {
+        if (LaunchTimings.getLaunchCount() > 0) {
+            logger.info("Session creation timings: {}", LaunchTimings.summary());
+        }
+        if (LaunchAdmission.getAdmittedCount() > 0) {
+            logger.info("Launch admission: {}", LaunchAdmission.summary());
+        }
+        if (DriverManager.getPoolStats() != null) {
+            logger.info("Driver pool stats: {}", DriverManager.getPoolStats());
+        }
+        logger.info("Cookie consent handling: {}", CookieConsent.summary());
+        if (NetworkReplay.isEnabled()) {
+            NetworkReplay.flush();
+            logger.info("Network record/replay: {}", NetworkReplay.summary());
+        }
+        for (Navigator.NavigationTiming timing : Navigator.getRecordedTimings()) {
+            logger.info("Navigation {}", timing);
+        }
+        if (!LocatorProfiler.isEmpty()) {
+            logger.info("Locator evaluation cost (slowest first):{}{}", System.lineSeparator(), LocatorProfiler.summary());
+            Allure.addAttachment("Locator profile", "application/json", LocatorProfiler.export(), ".json");
+        }
+        if (!PageRegistry.isEmpty()) {
+            logger.info("Page objects: {}", PageRegistry.summary());
+        }
+        if (!LocatorStats.isEmpty()) {
+            logger.info("Element locator cache:{}{}", System.lineSeparator(), LocatorStats.summary());
+        }
+        if (WaitStats.getTotalSavedMillis() != 0) {
+            logger.info("Event-driven waits saved {} ms against fixed sleeps:{}{}",
+                    WaitStats.getTotalSavedMillis(), System.lineSeparator(), WaitStats.summary());
+        }
+        if (!CommandMetrics.isEmpty()) {
+            logger.info("WebDriver commands:{}{}", System.lineSeparator(), CommandMetrics.summary());
+        }
+        if (RetryAnalyzer.getReservedRetryMillis() > 0) {
+            logger.info("Retries used {} ms of the retry budget", RetryAnalyzer.getReservedRetryMillis());
+        }
+        if (!ArtifactPipeline.awaitCompletion(ConfigReader.getIntProperty("artifacts.drainSeconds", 60), TimeUnit.SECONDS)) {
+            logger.warn("Failure artifacts were still being written when the run ended");
+        }
+        if (!ArtifactPipeline.isEmpty()) {
+            logger.info("Failure artifacts: {}", ArtifactPipeline.summary());
+        }
+        if (!PagePerformance.isEmpty()) {
+            logger.info("Page performance (p95 per page):{}{}", System.lineSeparator(), PagePerformance.summary());
+            Allure.addAttachment("Page performance", "application/json", PagePerformance.export(), ".json");
+        }
+        if (!StepTimings.isEmpty()) {
+            logger.info("Step latencies (slowest p95 first):{}{}", System.lineSeparator(), StepTimings.summary());
+            Allure.addAttachment("Step timings", "application/json", StepTimings.export(), ".json");
+        }
+    }
+
+    /**
+     * The driver of the running test. Parallel methods share one instance of their test class, so the driver is
+     * looked up in the test's driver context instead of being kept in a field.
+     */
+    protected WebDriver driver() {
+        return DriverManager.getDriver();
+    }
+
+    /**
+     * Runs one step of a flow and saves a checkpoint after it, so that a retry can resume after this step.
+     * Use it for steps whose result is reproducible from URL, cookies and web storage alone.
+     *
+     * @param name Step description for the log and the Allure report.
+     * @param body The step's actions and assertions.
+     */
+    protected void step(String name, Runnable body) {
+        runStep(name, body, true);
+    }
+
+    /**
+     * Runs one step of a flow without a checkpoint after it, for steps that leave in-page state (an opened
+     * tab or menu, a focused field) the next step relies on. A retry resumes before such a step.
+     */
+    protected void stepWithoutCheckpoint(String name, Runnable body) {
+        runStep(name, body, false);
+    }
+
+    private void runStep(String name, Runnable body, boolean checkpoint) {
+        StepRun run = stepRun.get();
+        int index = ++run.index;
+        StepCheckpoints.Checkpoint resume = run.resumeFrom;
+        if (resume != null && index <= resume.getStep()) {
+            logger.info("Step {}: {} (completed before the retry, skipped)", index, name);
+            return;
+        }
+        if (resume != null) {
+            restore(resume);
+            run.resumeFrom = null;
+        }
+        logger.info("Step {}: {}", index, name);
+        Allure.step(name, body::run);
+        if (checkpoint && StepCheckpoints.isEnabled()) {
+            StepCheckpoints.save(run.testKey, index, name, SessionState.capture(driver()));
+        }
+    }
+
+    private void restore(StepCheckpoints.Checkpoint checkpoint) {
+        logger.info("Resuming after step {} ({}) at {}", checkpoint.getStep(), checkpoint.getStepName(), checkpoint.getState().getUrl());
+        checkpoint.getState().restoreInto(driver());
+    }
+
+    private static final class StepRun {
+        private final String testKey;
+        private StepCheckpoints.Checkpoint resumeFrom;
+        private int index;
+
+        private StepRun(String testKey, StepCheckpoints.Checkpoint resumeFrom) {
+            this.testKey = testKey;
+            this.resumeFrom = resumeFrom;
         }
-        logger.info("Capturing screenshot: {}", screenshotName);
-        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
     }
 }
@@ -0,0 +1,115 @@
+package com.uitests.tests;
+
+import com.uitests.driver.TabExecutor;
+import com.uitests.pages.CloudBeesCDROPage;
+import com.uitests.pages.DocumentationPage;
+import com.uitests.pages.HomePage;
+import com.uitests.pages.PageRegistry;
+import com.uitests.utils.ConfigReader;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * The checks of {@link CloudBeesFlowTest} as independent tests that can run in parallel. Each starts at its deep
+ * page through {@code startFromSessionState}: the first test to need a page navigates there, and every later
+ * one, including retries, gets the captured cookies, storage and URL restored instead of the navigation prefix.
+ * The two read-only CD/RO checks share one browser through a {@link TabExecutor}, one tab each.
+ */
+@Epic("CloudBees Website Automation")
+@Feature("Main Site Flow and Documentation")
+public class CloudBeesSectionsTest extends BaseTest {
+    private final String CLOUDBEES_URL = ConfigReader.getProperty("app.url");
+
+    @Test(description = "Verify the CD/RO Cost Savings value and Release Governance text")
+    @Story("Product Info")
+    @Description("Starts on the CloudBees CD/RO page, reads Cost Savings and, after opening Auditors / Security, the " +
+            "Release Governance text in two tabs of the same browser, and verifies both.")
+    public void testCdroProductInfo() {
+        step("Start on the CloudBees CD/RO page", this::startOnCdroPage);
+
+        Map<String, String> values = new ConcurrentHashMap<>();
+        stepWithoutCheckpoint("Read Cost Savings and, under Auditors / Security, Release Governance in two tabs", () -> {
+            String cdroUrl = driver().getCurrentUrl();
+            try (TabExecutor tabs = TabExecutor.open(2)) {
+                Future<String> costSavings = tabs.submit(cdroUrl, () ->
+                        PageRegistry.get(CloudBeesCDROPage.class).getCostSavingsValue());
+                Future<String> governance = tabs.submit(cdroUrl, () ->
+                        PageRegistry.get(CloudBeesCDROPage.class).clickAuditorsSecurityTab().getReleaseGovernanceText());
+                values.put("costSavings", resultOf(costSavings));
+                values.put("governance", resultOf(governance));
+            }
+        });
+
+        // Not checkpoints: a resumed retry would not have the values read above
+        stepWithoutCheckpoint("Verify Cost Savings has a value of $2m", () -> {
+            String costSavings = values.get("costSavings");
+            Assert.assertTrue(costSavings.contains("$2m") || costSavings.contains("$2M"),
+                    "Cost Savings value is not '$2m' or '$2M'. Found: " + costSavings);
+        });
+
+        stepWithoutCheckpoint("Verify the text under Release Governance", () -> {
+            String expectedGovernanceText = "Generate single-click audit reports";
+            String actualGovernanceText = values.get("governance");
+            Assert.assertTrue(actualGovernanceText.contains(expectedGovernanceText),
+                    "Release Governance text mismatch. Expected to contain: '" + expectedGovernanceText + "', Found: '" + actualGovernanceText + "'");
+        });
+    }
+
+    @Test(description = "Verify Documentation search and pagination")
+    @Story("Documentation Search")
+    @Description("Starts on the Documentation page, searches for 'Installation' and verifies pagination.")
+    public void testDocumentationSearch() {
+        step("Start on the Documentation page", () ->
+                PageRegistry.get(HomePage.class).startFromSessionState("documentation-page", () -> {
+                    HomePage homePage = PageRegistry.get(HomePage.class);
+                    homePage.navigateToHomePage(CLOUDBEES_URL);
+                    homePage.navigateToDocumentationPage().acceptCookiesIfPresent(); // Continues in the new tab
+                }));
+
+        stepWithoutCheckpoint("Click in the text field Search all CloudBees Resources", () -> {
+            DocumentationPage docPage = PageRegistry.get(DocumentationPage.class);
+            Assert.assertTrue(docPage.isDocumentationPageLoaded(), "Documentation page did not load.");
+            docPage.clickSearchField();
+        });
+
+        stepWithoutCheckpoint("Search for the word 'Installation'", () -> {
+            DocumentationPage docPage = PageRegistry.get(DocumentationPage.class);
+            Assert.assertTrue(docPage.isSearchInterfaceActive(), "Search interface did not become active after clicking search field.");
+            docPage.searchFor("Installation");
+        });
+
+        step("Verify that we have pagination options at bottom", () ->
+                Assert.assertTrue(PageRegistry.get(DocumentationPage.class).isPaginationPresent(), "Pagination was not found on search results page."));
+    }
+
+    private static String resultOf(Future<String> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a tab task", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Tab task failed", e.getCause());
+        }
+    }
+
+    private void startOnCdroPage() {
+        PageRegistry.get(HomePage.class).startFromSessionState("cdro-page", () ->
+                PageRegistry.get(HomePage.class).navigateToHomePage(CLOUDBEES_URL).navigateToCloudBeesCDRO());
+    }
+}